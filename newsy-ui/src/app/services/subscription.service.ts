@@ -6,6 +6,8 @@ import {environment} from "../../environments/environment";
 export interface SubscribePayload {
   email: string;
   categories: string[];
+  timezone?: string;
+  deliveryHour?: number;
 }
 
 @Injectable({ providedIn: 'root' })
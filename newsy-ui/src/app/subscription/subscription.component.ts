@@ -63,7 +63,8 @@ export class SubscriptionComponent implements OnInit {
     this.submitting = true;
     const payload = {
       email: this.form.value.email,
-      categories: this.form.value.categories
+      categories: this.form.value.categories,
+      timezone: Intl.DateTimeFormat().resolvedOptions().timeZone
     };
     this.svc.subscribe(payload).subscribe({
       next: (res) => {
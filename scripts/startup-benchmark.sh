@@ -0,0 +1,33 @@
+#!/usr/bin/env sh
+# Compares startup time and resident memory of the plain jar against the AOT + CDS build.
+# Usage: mvn -Pcds -DskipTests package && scripts/startup-benchmark.sh [runs]
+# Each run waits for "Started NewsyApplication", samples RSS from /proc, then stops the app.
+
+RUNS=${1:-5}
+TARGET=$(cd "$(dirname "$0")/../target" && pwd)
+JAR=newsy-0.0.1-SNAPSHOT.jar
+export MONGODB_URI=${MONGODB_URI:-mongodb://localhost:27017}
+export NEWSDATA_API_KEY=${NEWSDATA_API_KEY:-benchmark}
+export SERVER_PORT=${SERVER_PORT:-18080}
+
+measure() {
+  label=$1; dir=$2; shift 2
+  i=1
+  while [ "$i" -le "$RUNS" ]; do
+    log=$(mktemp)
+    (cd "$dir" && exec java "$@" -jar "$JAR" >"$log" 2>&1) &
+    pid=$!
+    until grep -q "Started NewsyApplication" "$log"; do
+      kill -0 "$pid" 2>/dev/null || { echo "$label: app exited, see $log"; return 1; }
+      sleep 0.1
+    done
+    started=$(grep -o "Started NewsyApplication in [0-9.]* seconds (process running for [0-9.]*)" "$log")
+    rss=$(awk '/VmRSS/ {print int($2 / 1024) " MB"}' "/proc/$(pgrep -P "$pid" java || echo "$pid")/status")
+    echo "$label run $i: $started, RSS $rss"
+    kill "$pid"; wait "$pid" 2>/dev/null; rm -f "$log"
+    i=$((i + 1))
+  done
+}
+
+measure "jar" "$TARGET"
+measure "aot+cds" "$TARGET/cds" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
@@ -0,0 +1,114 @@
+package com.newsy.newsy.bench;
+
+import com.newsy.newsy.service.NewsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.ExpectedCount.manyTimes;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Time per full ingest run (fetch, parse, filter, persist for every category) against recorded
+ * NewsData.io traffic. The first run records synthetic responses through the upstream cache;
+ * the measured runs are all served from disk inside the freshness window, which the test checks
+ * by counting requests that reach the (mocked) network.
+ * Writes target/bench/ingest.csv.
+ */
+@SpringBootTest(properties = {
+        "newsdata.api.key=bench",
+        "newsdata.cache.mode=record",
+        "newsdata.cache.dir=target/bench/upstream-cache",
+        "newsdata.cache.freshness=PT24H",
+        "app.storage.embedded.path=target/bench/ingest.mv.db",
+        "news.snapshot.enabled=false",
+        "tracking.wal-path=target/bench/tracking.wal",
+        "logging.level.com.newsy=WARN"
+})
+@ActiveProfiles("embedded")
+class IngestReplayTest {
+
+    private static final int WARMUP = 20;
+    private static final int RUNS = 100;
+    private static final int ARTICLES_PER_RESPONSE = 10;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void reportIngestFromRecordings() throws Exception {
+        FileSystemUtils.deleteRecursively(Path.of("target/bench/upstream-cache"));
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        MockRestServiceServer upstream = MockRestServiceServer.bindTo(restTemplate).build();
+        upstream.expect(manyTimes(), request -> { }).andRespond(request -> {
+            upstreamCalls.incrementAndGet();
+            String category = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("category");
+            return withSuccess(response(category), MediaType.APPLICATION_JSON).createResponse(request);
+        });
+
+        List<String> categories = newsService.getCategories();
+        newsService.fetchAndStoreNews(categories, c -> { });
+        assertEquals(categories.size(), upstreamCalls.get(), "first run should record one response per category");
+
+        for (int i = 0; i < WARMUP; i++) {
+            newsService.fetchAndStoreNews(categories, c -> { });
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            newsService.fetchAndStoreNews(categories, c -> { });
+        }
+        long micros = (System.nanoTime() - start) / 1_000 / RUNS;
+        assertEquals(categories.size(), upstreamCalls.get(), "repeated runs should not reach the network");
+
+        double hits = meterRegistry.counter("newsy.upstream.cache", "outcome", "hit").count();
+        System.out.printf("ingest of %d categories from recordings: %,d us/run (%.0f cache hits, %d upstream requests)%n",
+                categories.size(), micros, hits, upstreamCalls.get());
+        Path report = Path.of("target/bench/ingest.csv");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, "categories,micros_per_run,upstream_requests\n"
+                + categories.size() + "," + micros + "," + upstreamCalls.get() + "\n");
+    }
+
+    private static String response(String category) {
+        StringBuilder json = new StringBuilder("{\"status\":\"success\",\"totalResults\":")
+                .append(ARTICLES_PER_RESPONSE).append(",\"results\":[");
+        String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        for (int i = 0; i < ARTICLES_PER_RESPONSE; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"article_id\":\"").append(category).append(i)
+                    .append("\",\"title\":\"").append(category).append(" headline ").append(i).append(" of a realistic length\"")
+                    .append(",\"link\":\"https://example.com/").append(category).append('/').append(i).append('"')
+                    .append(",\"creator\":[\"Author ").append(i).append("\"]")
+                    .append(",\"description\":\"").append("A description of a couple of sentences. ".repeat(4)).append('"')
+                    .append(",\"pubDate\":\"").append(now).append('"')
+                    .append(",\"image_url\":\"https://example.com/img/").append(category).append('/').append(i).append(".jpg\"")
+                    .append(",\"source_id\":\"source").append(i % 3).append('"')
+                    .append(",\"source_icon\":\"https://example.com/icon.png\"")
+                    .append(",\"category\":[\"").append(category).append("\"],\"language\":\"english\"}");
+        }
+        return json.append("]}").toString();
+    }
+}
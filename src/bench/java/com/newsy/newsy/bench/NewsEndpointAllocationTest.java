@@ -0,0 +1,95 @@
+package com.newsy.newsy.bench;
+
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.repository.NewsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Bytes allocated per request for each news read endpoint, through the full MVC stack
+ * (MockMvc runs the request on the calling thread, so the thread's allocation counter covers it).
+ * Writes target/bench/allocation.csv so the numbers can be tracked between builds.
+ */
+@SpringBootTest(properties = {
+        "newsdata.api.key=bench",
+        "app.storage.embedded.path=target/bench/newsy.mv.db",
+        "news.snapshot.enabled=false",
+        "tracking.wal-path=target/bench/tracking.wal",
+        "logging.level.com.newsy=WARN"
+})
+@ActiveProfiles("embedded")
+@AutoConfigureMockMvc
+class NewsEndpointAllocationTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int REQUESTS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Test
+    void reportBytesPerRequest() throws Exception {
+        seed(10, 4);
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /api/news", "/api/news");
+        endpoints.put("GET /api/news/{category}", "/api/news/category0");
+        endpoints.put("GET /api/news/fetch/schedule", "/api/news/fetch/schedule");
+        endpoints.put("GET /api/news/fetch/{jobId} (404)", "/api/news/fetch/unknown");
+
+        StringBuilder csv = new StringBuilder("endpoint,bytes_per_request,micros_per_request\n");
+        for (Map.Entry<String, String> endpoint : endpoints.entrySet()) {
+            for (int i = 0; i < WARMUP; i++) {
+                mockMvc.perform(get(endpoint.getValue()));
+            }
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                mockMvc.perform(get(endpoint.getValue()));
+            }
+            long micros = (System.nanoTime() - start) / 1_000 / REQUESTS;
+            long bytes = (allocatedBytes() - bytesBefore) / REQUESTS;
+            System.out.printf("%-36s %,10d B/request %,8d us/request%n", endpoint.getKey(), bytes, micros);
+            csv.append(endpoint.getKey()).append(',').append(bytes).append(',').append(micros).append('\n');
+        }
+        Path report = Path.of("target/bench/allocation.csv");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, csv);
+    }
+
+    private void seed(int categories, int perCategory) {
+        newsRepository.deleteByCategoryIn(newsRepository.findAllByOrderByFetchedAtDescPublishedAtDesc().stream()
+                .map(News::getCategory).distinct().toList());
+        List<News> news = new ArrayList<>();
+        for (int c = 0; c < categories; c++) {
+            for (int i = 0; i < perCategory; i++) {
+                news.add(new News("Title " + c + "-" + i + " with a realistic length for a headline", "Author " + i,
+                        "source" + c, "https://example.com/" + c + "/articles/" + i, LocalDateTime.now().minusHours(i),
+                        "Category" + c, "A description of a couple of sentences, as returned by the upstream API. ".repeat(3),
+                        "https://example.com/img/" + c + "/" + i + ".jpg", "https://example.com/icon/" + c + ".png"));
+            }
+        }
+        newsRepository.saveAll(news);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
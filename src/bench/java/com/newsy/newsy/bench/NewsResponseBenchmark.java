@@ -0,0 +1,124 @@
+package com.newsy.newsy.bench;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.newsy.newsy.dto.AllNewsResponse;
+import com.newsy.newsy.dto.CategoryNewsResponse;
+import com.newsy.newsy.dto.NewsDTO;
+import com.newsy.newsy.model.News;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and serialises the GET /api/news and GET /api/news/{category} bodies from entities,
+ * once the way the controller used to (groupingBy, trimmed copies, Map.of wrappers, bean
+ * serialisation) and once through the streaming response records. Run with -prof gc and
+ * compare gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsResponseBenchmark {
+
+    private static final int PER_CATEGORY = 4;
+
+    @Param({"10"})
+    private int categories;
+
+    @Param({"5"})
+    private int articlesPerCategory;
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private List<News> all;
+    private List<News> category;
+
+    @Setup
+    public void setup() {
+        all = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < articlesPerCategory; i++) {
+            for (int c = 0; c < categories; c++) {
+                News news = new News("Title " + c + "-" + i + " with a realistic length for a headline",
+                        "Author " + i, "source" + c, "https://example.com/" + c + "/articles/" + i,
+                        now.minusHours(i), "Category" + c,
+                        "A description of a couple of sentences, as returned by the upstream API. ".repeat(3),
+                        "https://example.com/img/" + c + "/" + i + ".jpg", "https://example.com/icon/" + c + ".png");
+                news.setId(Integer.toHexString(c * 1000 + i));
+                all.add(news);
+            }
+        }
+        category = all.stream().filter(n -> n.getCategory().equals("Category0")).toList();
+    }
+
+    @Benchmark
+    public void allNewsLegacy() throws IOException {
+        Map<String, List<NewsDTO>> grouped = all.stream()
+                .collect(Collectors.groupingBy(News::getCategory,
+                        Collectors.mapping(NewsDTO::fromEntity, Collectors.toList())));
+        Map<String, List<NewsDTO>> limited = new LinkedHashMap<>();
+        grouped.forEach((c, articles) -> limited.put(c, articles.stream().limit(PER_CATEGORY).collect(Collectors.toList())));
+        mapper.writeValue(sink, Map.of(
+                "totalCategories", limited.size(),
+                "totalArticles", limited.values().stream().mapToInt(List::size).sum(),
+                "news", limited));
+    }
+
+    @Benchmark
+    public void allNewsStreaming() throws IOException {
+        Map<String, List<NewsDTO>> grouped = new LinkedHashMap<>();
+        for (News news : all) {
+            List<NewsDTO> articles = grouped.computeIfAbsent(news.getCategory(), c -> new ArrayList<>(PER_CATEGORY));
+            if (articles.size() < PER_CATEGORY) {
+                articles.add(NewsDTO.fromEntity(news));
+            }
+        }
+        mapper.writeValue(sink, new AllNewsResponse(grouped, PER_CATEGORY));
+    }
+
+    @Benchmark
+    public void categoryLegacy() throws IOException {
+        List<NewsDTO> articles = category.stream().limit(5).collect(Collectors.toList()).stream()
+                .map(NewsDTO::fromEntity)
+                .toList();
+        mapper.writeValue(sink, articles.isEmpty()
+                ? Map.of("message", "No news found", "category", "Category0", "articles", Collections.emptyList())
+                : Map.of("category", "Category0", "count", articles.size(), "articles", articles));
+    }
+
+    @Benchmark
+    public void categoryStreaming() throws IOException {
+        List<NewsDTO> articles = category.stream().limit(5).collect(Collectors.toList()).stream()
+                .map(NewsDTO::fromEntity)
+                .toList();
+        mapper.writeValue(sink, new CategoryNewsResponse("Category0", articles));
+    }
+}
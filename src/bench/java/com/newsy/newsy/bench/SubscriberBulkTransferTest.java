@@ -0,0 +1,207 @@
+package com.newsy.newsy.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsy.newsy.NewsyApplication;
+import com.newsy.newsy.repository.SubscriberRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk subscriber import and export over HTTP against the embedded store. The request body is
+ * generated while it is sent, so neither side holds the whole file. Checks:
+ * - ROWS verified subscribers imported as NDJSON (plus duplicates and invalid rows) arrive once each
+ * - a CSV import of unverified subscribers queues their verification mails, which the outbox sends
+ * - both export formats stream every subscriber back
+ * Reports time per phase and peak heap. Writes target/bench/subscriber-bulk.csv.
+ */
+class SubscriberBulkTransferTest {
+
+    private static final int ROWS = 200_000;
+    private static final int UNVERIFIED_ROWS = 200;
+    private static final String TOKEN = "bench-admin-token";
+
+    private static final AtomicLong MAILS = new AtomicLong();
+
+    @Test
+    void importAndExport() throws Exception {
+        Path db = Path.of("target/bench/subscriber-bulk.mv.db");
+        FileSystemUtils.deleteRecursively(db);
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(NewsyApplication.class)
+                .profiles("embedded")
+                .initializers(context -> ((GenericApplicationContext) context).registerBean(JavaMailSender.class,
+                        () -> new JavaMailSenderImpl() {
+                            @Override
+                            protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                                MAILS.addAndGet(mimeMessages.length);
+                            }
+                        }))
+                .run("--server.port=0",
+                        "--app.admin-token=" + TOKEN,
+                        "--newsdata.api.key=bench",
+                        "--newsdata.cache.mode=replay",
+                        "--news.fetch.adaptive=false",
+                        "--app.storage.embedded.path=" + db,
+                        "--news.snapshot.enabled=false",
+                        "--tracking.wal-path=target/bench/tracking.wal",
+                        "--newsletter.send.per-domain-rate-per-minute=1000000",
+                        "--spring.mail.properties.mail.debug=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.newsy=WARN");
+        try {
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port") + "/api/admin/subscribers";
+            HttpClient client = HttpClient.newHttpClient();
+            ObjectMapper json = new ObjectMapper();
+            SubscriberRepository repo = ctx.getBean(SubscriberRepository.class);
+            resetPeakHeap();
+
+            HttpResponse<String> unauthorized = client.send(HttpRequest.newBuilder(URI.create(base + "/export")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(401, unauthorized.statusCode());
+
+            // NDJSON: every 100th row repeats the previous email, every 1000th is invalid
+            long start = System.nanoTime();
+            JsonNode report = json.readTree(post(client, base + "/import?verified=true", "application/x-ndjson",
+                    generated(ROWS, i -> i % 1000 == 999
+                            ? "{\"email\":\"not-an-email\",\"categories\":[\"technology\"]}\n"
+                            : "{\"email\":\"" + email(i % 100 == 99 ? i - 1 : i)
+                            + "\",\"categories\":[\"technology\",\"sports\"],\"timezone\":\"Europe/Berlin\",\"deliveryHour\":7}\n")));
+            long importMillis = (System.nanoTime() - start) / 1_000_000;
+            long invalid = ROWS / 1000;
+            long duplicates = ROWS / 100 - ROWS / 100 / 10;
+            assertEquals(ROWS, report.get("rows").asLong());
+            assertEquals(invalid, report.get("invalid").asLong());
+            // A repeat landing in the next chunk counts as an update of the stored row
+            assertEquals(duplicates, report.get("duplicates").asLong() + report.get("updated").asLong());
+            assertEquals(ROWS - invalid - duplicates, report.get("imported").asLong());
+            assertEquals(0, report.get("verificationQueued").asLong());
+            long stored = repo.count();
+            assertEquals(ROWS - invalid - duplicates, stored);
+
+            // CSV, unverified: quoted cells, one row updates an existing subscriber
+            JsonNode csvReport = json.readTree(post(client, base + "/import", "text/csv",
+                    generated(UNVERIFIED_ROWS + 1, i -> i == 0 ? "email,categories,timezone,deliveryHour,ignored\r\n"
+                            : i == 1 ? email(0) + ",business,,,x\r\n"
+                            : "\"new" + i + "@mail" + (i % 7) + ".example\",\"technology;business\",America/New_York,8,\"a, b\"\r\n")));
+            assertEquals(UNVERIFIED_ROWS, csvReport.get("rows").asLong());
+            assertEquals(1, csvReport.get("updated").asLong());
+            assertEquals(UNVERIFIED_ROWS - 1, csvReport.get("verificationQueued").asLong());
+            assertEquals("business", repo.findByEmail(email(0)).orElseThrow().getCategories().get(0));
+            long deadline = System.nanoTime() + 30_000_000_000L;
+            while ((MAILS.get() < UNVERIFIED_ROWS - 1 || !repo.findQueuedForVerification(Instant.now(), 1).isEmpty())
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(UNVERIFIED_ROWS - 1, MAILS.get());
+            assertTrue(repo.findQueuedForVerification(Instant.now(), 1).isEmpty(), "outbox should be drained");
+            stored = repo.count();
+
+            start = System.nanoTime();
+            long ndjsonLines = countLines(client, base + "/export?format=ndjson");
+            long exportMillis = (System.nanoTime() - start) / 1_000_000;
+            assertEquals(stored, ndjsonLines);
+            assertEquals(stored + 1, countLines(client, base + "/export?format=csv"));
+
+            long peakHeapMb = peakHeap() / (1024 * 1024);
+            System.out.printf("import %,d NDJSON rows: %,d ms (%,.0f rows/s); export %,d rows: %,d ms; peak heap %,d MB%n",
+                    ROWS, importMillis, ROWS * 1000.0 / importMillis, stored, exportMillis, peakHeapMb);
+            Path out = Path.of("target/bench/subscriber-bulk.csv");
+            Files.createDirectories(out.getParent());
+            Files.writeString(out, "rows,import_ms,export_rows,export_ms,peak_heap_mb\n"
+                    + ROWS + "," + importMillis + "," + stored + "," + exportMillis + "," + peakHeapMb + "\n");
+        } finally {
+            ctx.close();
+        }
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@domain" + (i % 50) + ".example";
+    }
+
+    private static String post(HttpClient client, String uri, String contentType, InputStream body) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri))
+                        .header("Content-Type", contentType)
+                        .header("X-Admin-Token", TOKEN)
+                        .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return response.body();
+    }
+
+    private static long countLines(HttpClient client, String uri) throws Exception {
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(URI.create(uri))
+                .header("X-Admin-Token", TOKEN).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        long lines = 0;
+        try (InputStream in = response.body()) {
+            byte[] buffer = new byte[64 * 1024];
+            for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Body of count lines, produced on demand
+     */
+    private static InputStream generated(int count, IntFunction<String> line) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int i;
+
+            @Override
+            public boolean hasMoreElements() {
+                return i < count;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return new ByteArrayInputStream(line.apply(i++).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static long peakHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+}
@@ -0,0 +1,268 @@
+package com.newsy.newsy.bench;
+
+import com.newsy.newsy.NewsyApplication;
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.repository.NewsRepository;
+import com.newsy.newsy.repository.SubscriberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.util.FileSystemUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency and latency of blocking request handlers on Tomcat's platform pool (200 threads)
+ * versus virtual threads, with the store and the SMTP relay made artificially slow.
+ * Each scenario boots the application on a random port (embedded storage) once per mode and
+ * drives it with CLIENTS concurrent closed-loop clients; requests completing inside the MEASURE
+ * window count. Scenarios:
+ * - news read: every store call takes STORE_LATENCY
+ * - subscribe: every store call takes SUBSCRIBE_STORE_LATENCY, every SMTP send SMTP_LATENCY
+ * - news read, pinning driver: as the first, but the store blocks inside synchronized, like a
+ *   driver that is not virtual-thread friendly
+ * Writes target/bench/virtual-threads.csv.
+ */
+class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = 600;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(10);
+    private static final long STORE_LATENCY = 500;
+    private static final long SUBSCRIBE_STORE_LATENCY = 10;
+    private static final long SMTP_LATENCY = 50;
+
+    private static final AtomicLong EMAILS = new AtomicLong();
+    private static final ThreadLocal<Object> MONITOR = ThreadLocal.withInitial(Object::new);
+
+    @Test
+    void compareThreadModes() throws Exception {
+        // Untimed pass so the first measured run does not pay for JIT compilation of the shared client and server code
+        run(Scenario.NEWS_READ, false);
+        StringBuilder csv = new StringBuilder("scenario,threads,requests_per_second,p50_ms,p99_ms,max_ms,errors,pinned_events\n");
+        for (Scenario scenario : Scenario.values()) {
+            for (boolean virtual : new boolean[]{false, true}) {
+                Result result = run(scenario, virtual);
+                String threads = virtual ? "virtual" : "platform";
+                System.out.printf("%-28s %-9s %,8.0f req/s  p50 %,6d ms  p99 %,6d ms  max %,6d ms  errors %d  pinned %d%n",
+                        scenario.label, threads, result.throughput, result.p50, result.p99, result.max, result.errors, result.pinned);
+                csv.append(scenario.label).append(',').append(threads).append(',').append(Math.round(result.throughput))
+                        .append(',').append(result.p50).append(',').append(result.p99).append(',').append(result.max)
+                        .append(',').append(result.errors).append(',').append(result.pinned).append('\n');
+            }
+        }
+        Path report = Path.of("target/bench/virtual-threads.csv");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, csv);
+    }
+
+    private Result run(Scenario scenario, boolean virtual) throws Exception {
+        Path db = Path.of("target/bench/vt-" + scenario.name().toLowerCase() + "-" + virtual + ".mv.db");
+        FileSystemUtils.deleteRecursively(db);
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(NewsyApplication.class)
+                .profiles("embedded")
+                .initializers(context -> slowDependencies((GenericApplicationContext) context, scenario))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--newsdata.api.key=bench",
+                        "--newsdata.cache.mode=replay",
+                        "--news.fetch.adaptive=false",
+                        "--app.storage.embedded.path=" + db,
+                        "--app.max-subscribers=100000000",
+                        "--news.snapshot.enabled=false",
+                        "--tracking.wal-path=target/bench/tracking.wal",
+                        "--spring.mail.properties.mail.debug=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.newsy=WARN",
+                        "--logging.level.com.newsy.newsy.config.VirtualThreadPinningMonitor=ERROR");
+        try {
+            seed(ctx.getBean(NewsRepository.class));
+            int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+            Result result = load(port, scenario);
+            result.pinned = ctx.getBean(MeterRegistry.class).find("newsy.virtual.pinned").timers().stream()
+                    .mapToLong(Timer::count).sum();
+            return result;
+        } finally {
+            ctx.close();
+        }
+    }
+
+    /**
+     * Wrap the repositories in proxies that sleep before every call, and replace the mail sender
+     * with one that takes SMTP_LATENCY per message
+     */
+    private static void slowDependencies(GenericApplicationContext context, Scenario scenario) {
+        long storeLatency = scenario == Scenario.SUBSCRIBE ? SUBSCRIBE_STORE_LATENCY : STORE_LATENCY;
+        context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof NewsRepository) {
+                    return slow(bean, NewsRepository.class, storeLatency, scenario == Scenario.NEWS_READ_PINNED);
+                }
+                if (bean instanceof SubscriberRepository) {
+                    return slow(bean, SubscriberRepository.class, storeLatency, false);
+                }
+                return bean;
+            }
+        });
+        context.registerBean(JavaMailSender.class, () -> new JavaMailSenderImpl() {
+            @Override
+            protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                sleep(SMTP_LATENCY * mimeMessages.length);
+            }
+        });
+    }
+
+    private static Object slow(Object target, Class<?> type, long latency, boolean pinning) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() != Object.class) {
+                if (pinning) {
+                    // A monitor per thread: no contention, but the carrier stays pinned while blocked
+                    synchronized (MONITOR.get()) {
+                        sleep(latency);
+                    }
+                } else {
+                    sleep(latency);
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private static void seed(NewsRepository repository) {
+        List<News> news = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            news.add(new News("Technology headline " + i, "Author", "source", "https://example.com/tech/" + i,
+                    LocalDateTime.now().minusHours(i), "Technology", "Description of the article.",
+                    "https://example.com/img/" + i + ".jpg", "https://example.com/icon.png"));
+        }
+        repository.saveAll(news);
+    }
+
+    private static Result load(int port, Scenario scenario) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+        long end = warmupEnd + MEASURE.toNanos();
+        List<Future<long[]>> clients = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(scenario.request(port), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long finished = System.nanoTime();
+                        if (finished < warmupEnd || finished > end) {
+                            continue;
+                        }
+                        if (status != 200) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, n * 2);
+                        }
+                        latencies[n++] = finished - start;
+                    }
+                    return Arrays.copyOf(latencies, n);
+                }));
+            }
+        }
+        long[] all = new long[0];
+        for (Future<long[]> f : clients) {
+            long[] l = f.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + l.length);
+            System.arraycopy(l, 0, all, offset, l.length);
+        }
+        Arrays.sort(all);
+        Result result = new Result();
+        result.throughput = all.length / (double) MEASURE.toSeconds();
+        result.p50 = percentile(all, 0.50);
+        result.p99 = percentile(all, 0.99);
+        result.max = all.length == 0 ? 0 : all[all.length - 1] / 1_000_000;
+        result.errors = errors.get();
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.round(p * sorted.length))] / 1_000_000;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private enum Scenario {
+        NEWS_READ("news read"),
+        SUBSCRIBE("subscribe"),
+        NEWS_READ_PINNED("news read, pinning driver");
+
+        private final String label;
+
+        Scenario(String label) {
+            this.label = label;
+        }
+
+        HttpRequest request(int port) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+            if (this == SUBSCRIBE) {
+                String body = "{\"email\":\"bench" + EMAILS.incrementAndGet() + "@example.com\",\"categories\":[\"technology\"]}";
+                return builder.uri(URI.create("http://localhost:" + port + "/api/subscriptions/subscribe"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            return builder.uri(URI.create("http://localhost:" + port + "/api/news/technology")).GET().build();
+        }
+    }
+
+    private static class Result {
+        double throughput;
+        long p50;
+        long p99;
+        long max;
+        long errors;
+        long pinned;
+    }
+}
@@ -1,5 +1,6 @@
 package com.newsy.newsy.config;
 
+import com.newsy.newsy.service.NewsApiResponseCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -8,8 +9,9 @@ import org.springframework.web.client.RestTemplate;
 public class AppConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(NewsApiResponseCache newsApiResponseCache) {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(newsApiResponseCache);
+        return restTemplate;
     }
 }
-
@@ -0,0 +1,55 @@
+package com.newsy.newsy.config;
+
+import com.newsy.newsy.dto.FetchJobStatus;
+import com.newsy.newsy.dto.NewsApiResponse;
+import com.newsy.newsy.dto.NewsDTO;
+import com.newsy.newsy.dto.SubscribeRequest;
+import com.newsy.newsy.dto.SubscriberExportRow;
+import com.newsy.newsy.dto.SubscriberImportReport;
+import com.newsy.newsy.dto.SubscriberImportRow;
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.model.TrackingCounter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the AOT (CDS) and native image builds.
+ * Jackson, Spring Data and Thymeleaf reach the accessors of these models and DTOs (Lombok
+ * classes and records alike) only through reflection, so they must be registered explicitly.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.NewsyRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class NewsyRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] REFLECTIVE_TYPES = {
+                NewsApiResponse.class,
+                NewsApiResponse.Result.class,
+                NewsDTO.class,
+                FetchJobStatus.class,
+                SubscribeRequest.class,
+                SubscriberImportRow.class,
+                SubscriberImportReport.class,
+                SubscriberExportRow.class,
+                News.class,
+                Subscriber.class,
+                TrackingCounter.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : REFLECTIVE_TYPES) {
+                hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+            hints.resources().registerPattern("templates/*.html");
+        }
+    }
+}
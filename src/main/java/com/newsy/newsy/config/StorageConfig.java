@@ -0,0 +1,89 @@
+package com.newsy.newsy.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.model.TrackingCounter;
+import com.newsy.newsy.repository.NewsRepository;
+import com.newsy.newsy.repository.SubscriberChangeFeed;
+import com.newsy.newsy.repository.SubscriberRepository;
+import com.newsy.newsy.repository.TrackingCounterRepository;
+import com.newsy.newsy.repository.embedded.EmbeddedDocumentStore;
+import com.newsy.newsy.repository.embedded.EmbeddedNewsRepository;
+import com.newsy.newsy.repository.embedded.EmbeddedSubscriberRepository;
+import com.newsy.newsy.repository.embedded.EmbeddedTrackingCounterRepository;
+import com.newsy.newsy.repository.mongo.MongoIndexes;
+import com.newsy.newsy.repository.mongo.MongoNewsRepository;
+import com.newsy.newsy.repository.mongo.MongoSubscriberChangeFeed;
+import com.newsy.newsy.repository.mongo.MongoTrackingCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Selects the storage engine behind the repositories with app.storage:
+ * "mongo" (default) uses MongoDB via MONGODB_URI, "embedded" keeps everything in a local
+ * MVStore file for single-node deployments and offline tests (see the embedded profile).
+ */
+@Configuration
+public class StorageConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.storage", havingValue = "mongo", matchIfMissing = true)
+    @EnableMongoRepositories(basePackageClasses = MongoNewsRepository.class)
+    static class MongoStorage {
+
+        @Bean
+        public TrackingCounterRepository trackingCounterRepository(MongoTemplate mongoTemplate) {
+            return new MongoTrackingCounterRepository(mongoTemplate);
+        }
+
+        @Bean
+        public SubscriberChangeFeed subscriberChangeFeed(MongoTemplate mongoTemplate) {
+            return new MongoSubscriberChangeFeed(mongoTemplate);
+        }
+
+        @Bean
+        public MongoIndexes mongoIndexes(MongoTemplate mongoTemplate) {
+            return new MongoIndexes(mongoTemplate);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.storage", havingValue = "embedded")
+    @Slf4j
+    static class EmbeddedStorage {
+
+        @Bean(destroyMethod = "close")
+        public MVStore embeddedStore(@Value("${app.storage.embedded.path:data/newsy.mv.db}") Path path) throws IOException {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            log.info("Using embedded storage at {}", path.toAbsolutePath());
+            return new MVStore.Builder().fileName(path.toString()).compress().open();
+        }
+
+        @Bean
+        public NewsRepository newsRepository(MVStore store, ObjectMapper objectMapper) {
+            return new EmbeddedNewsRepository(new EmbeddedDocumentStore<>(store, objectMapper.copy(), News.class));
+        }
+
+        @Bean
+        public SubscriberRepository subscriberRepository(MVStore store, ObjectMapper objectMapper) {
+            return new EmbeddedSubscriberRepository(new EmbeddedDocumentStore<>(store, objectMapper.copy(), Subscriber.class));
+        }
+
+        @Bean
+        public TrackingCounterRepository trackingCounterRepository(MVStore store, ObjectMapper objectMapper) {
+            return new EmbeddedTrackingCounterRepository(new EmbeddedDocumentStore<>(store, objectMapper.copy(), TrackingCounter.class));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.newsy.newsy.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The X-Admin-Token check shared by operator endpoints. While app.admin-token is empty the
+ * endpoints are disabled (404).
+ */
+@Component
+class AdminToken {
+
+    static final String HEADER = "X-Admin-Token";
+
+    @Value("${app.admin-token:}")
+    private String adminToken;
+
+    boolean enabled() {
+        return adminToken != null && !adminToken.isBlank();
+    }
+
+    boolean matches(String token) {
+        return enabled() && token != null && MessageDigest.isEqual(
+                adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,15 +1,20 @@
 package com.newsy.newsy.controller;
 
+import com.newsy.newsy.dto.AllNewsResponse;
+import com.newsy.newsy.dto.CategoryNewsResponse;
 import com.newsy.newsy.dto.NewsDTO;
 import com.newsy.newsy.model.News;
+import com.newsy.newsy.service.CategoryFetchPlanner;
+import com.newsy.newsy.service.NewsFetchJobService;
 import com.newsy.newsy.service.NewsService;
+import com.newsy.newsy.service.NewsSnapshotStore;
+import com.newsy.newsy.service.RelatedArticlesIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/news")
@@ -17,10 +22,22 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NewsController {
 
-    private final NewsService newsService;
+    private static final int ARTICLES_PER_CATEGORY = 4;
 
-    public NewsController(NewsService newsService) {
+    private final NewsService newsService;
+    private final NewsFetchJobService fetchJobService;
+    private final CategoryFetchPlanner fetchPlanner;
+    private final NewsSnapshotStore snapshotStore;
+    private final RelatedArticlesIndex relatedArticles;
+
+    public NewsController(NewsService newsService, NewsFetchJobService fetchJobService,
+                          CategoryFetchPlanner fetchPlanner, NewsSnapshotStore snapshotStore,
+                          RelatedArticlesIndex relatedArticles) {
         this.newsService = newsService;
+        this.fetchJobService = fetchJobService;
+        this.fetchPlanner = fetchPlanner;
+        this.snapshotStore = snapshotStore;
+        this.relatedArticles = relatedArticles;
     }
 
     /**
@@ -35,24 +52,7 @@ public class NewsController {
             // Capitalize first letter for consistency
             String formattedCategory = capitalizeFirstLetter(category);
 
-            List<News> newsList = newsService.getNewsByCategory(formattedCategory);
-            List<NewsDTO> newsDTO = newsList.stream()
-                    .map(NewsDTO::fromEntity)
-                    .toList();
-
-            if (newsDTO.isEmpty()) {
-                return ResponseEntity.ok(Map.of(
-                    "message", "No news found for category: " + formattedCategory,
-                    "category", formattedCategory,
-                    "articles", Collections.emptyList()
-                ));
-            }
-
-            return ResponseEntity.ok(Map.of(
-                "category", formattedCategory,
-                "count", newsDTO.size(),
-                "articles", newsDTO
-            ));
+            return ResponseEntity.ok(new CategoryNewsResponse(formattedCategory, loadCategory(formattedCategory)));
 
         } catch (Exception e) {
             log.error("Error fetching news for category {}: {}", category, e.getMessage(), e);
@@ -61,6 +61,21 @@ public class NewsController {
         }
     }
 
+    /**
+     * GET /api/news/{id}/related
+     * Returns articles similar to the given one, most similar first, precomputed at ingest time
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<?> getRelatedNews(@PathVariable String id) {
+        return relatedArticles.related(id)
+                .<ResponseEntity<?>>map(articles -> ResponseEntity.ok(Map.of(
+                        "id", id,
+                        "count", articles.size(),
+                        "articles", articles)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Unknown or expired article: " + id)));
+    }
+
     /**
      * GET /api/news
      * Returns all latest articles grouped by category
@@ -70,27 +85,8 @@ public class NewsController {
         try {
             log.info("REST API: Getting all news");
 
-            List<News> allNews = newsService.getAllNews();
-
-            // Group news by category
-            Map<String, List<NewsDTO>> groupedNews = allNews.stream()
-                    .collect(Collectors.groupingBy(
-                        News::getCategory,
-                        Collectors.mapping(NewsDTO::fromEntity, Collectors.toList())
-                    ));
-
-            // Ensure each category has max 4 articles
-            Map<String, List<NewsDTO>> limitedGroupedNews = new LinkedHashMap<>();
-            groupedNews.forEach((category, articles) -> limitedGroupedNews.put(category, articles.stream()
-                    .limit(4)
-                    .collect(Collectors.toList())));
-
-            return ResponseEntity.ok(Map.of(
-                "totalCategories", limitedGroupedNews.size(),
-                "totalArticles", limitedGroupedNews.values().stream()
-                        .mapToInt(List::size).sum(),
-                "news", limitedGroupedNews
-            ));
+            // Each category is capped at ARTICLES_PER_CATEGORY while the response is written
+            return ResponseEntity.ok(new AllNewsResponse(loadAllGrouped(), ARTICLES_PER_CATEGORY));
 
         } catch (Exception e) {
             log.error("Error fetching all news: {}", e.getMessage(), e);
@@ -101,16 +97,19 @@ public class NewsController {
 
     /**
      * POST /api/news/fetch
-     * Manual trigger to fetch news (for testing/admin purposes)
+     * Manual trigger to fetch news (for testing/admin purposes).
+     * Returns immediately; a fetch already in flight is joined instead of started again.
      */
     @PostMapping("/fetch")
     public ResponseEntity<?> manualFetchNews() {
         try {
             log.info("REST API: Manual news fetch triggered");
-            newsService.fetchAndStoreNews();
-            return ResponseEntity.ok(Map.of(
-                "message", "News fetch completed successfully",
-                "timestamp", new Date()
+            NewsFetchJobService.TriggerResult result = fetchJobService.trigger("manual");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "message", result.coalesced() ? "News fetch already in progress" : "News fetch started",
+                "jobId", result.job().getJobId(),
+                "coalesced", result.coalesced(),
+                "job", result.job()
             ));
         } catch (Exception e) {
             log.error("Error in manual news fetch: {}", e.getMessage(), e);
@@ -119,6 +118,71 @@ public class NewsController {
         }
     }
 
+    /**
+     * GET /api/news/fetch/schedule
+     * Returns the adaptive polling plan per category and API budget usage
+     */
+    @GetMapping("/fetch/schedule")
+    public ResponseEntity<?> getFetchSchedule() {
+        return ResponseEntity.ok(fetchPlanner.snapshot());
+    }
+
+    /**
+     * GET /api/news/fetch/{jobId}
+     * Returns status and progress of a fetch job
+     */
+    @GetMapping("/fetch/{jobId}")
+    public ResponseEntity<?> getFetchJobStatus(@PathVariable String jobId) {
+        return fetchJobService.getStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Unknown fetch job: " + jobId)));
+    }
+
+    /**
+     * Articles of one category: from the warm-start snapshot while it is being served and has the
+     * category, from the live store otherwise, and from the snapshot again if the live store fails
+     */
+    private List<NewsDTO> loadCategory(String category) {
+        Optional<List<NewsDTO>> warm = snapshotStore.servable().map(snapshot -> snapshot.get(category));
+        if (warm.isPresent()) {
+            return warm.get();
+        }
+        try {
+            return newsService.getNewsByCategory(category).stream()
+                    .map(NewsDTO::fromEntity)
+                    .toList();
+        } catch (RuntimeException e) {
+            List<NewsDTO> snapshot = snapshotStore.fallback().map(all -> all.get(category)).orElseThrow(() -> e);
+            log.warn("Live store failed for category {}, serving snapshot: {}", category, e.getMessage());
+            return snapshot;
+        }
+    }
+
+    /**
+     * All articles grouped by category, with the same snapshot rules as loadCategory
+     */
+    private Map<String, List<NewsDTO>> loadAllGrouped() {
+        Optional<Map<String, List<NewsDTO>>> warm = snapshotStore.servable();
+        if (warm.isPresent()) {
+            return warm.get();
+        }
+        try {
+            Map<String, List<NewsDTO>> grouped = new LinkedHashMap<>();
+            for (News news : newsService.getAllNews()) {
+                List<NewsDTO> articles = grouped.computeIfAbsent(news.getCategory(), c -> new ArrayList<>(ARTICLES_PER_CATEGORY));
+                if (articles.size() < ARTICLES_PER_CATEGORY) {
+                    articles.add(NewsDTO.fromEntity(news));
+                }
+            }
+            return grouped;
+        } catch (RuntimeException e) {
+            Map<String, List<NewsDTO>> snapshot = snapshotStore.fallback().orElseThrow(() -> e);
+            log.warn("Live store failed for all news, serving snapshot: {}", e.getMessage());
+            return snapshot;
+        }
+    }
+
     /**
      * Helper method to capitalize first letter of a string
      */
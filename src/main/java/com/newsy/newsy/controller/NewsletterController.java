@@ -0,0 +1,52 @@
+package com.newsy.newsy.controller;
+
+import com.newsy.newsy.service.DomainSendScheduler;
+import com.newsy.newsy.service.SubscriptionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Newsletter delivery statistics for operators; needs the X-Admin-Token header like the admin endpoints
+ */
+@RestController
+@RequestMapping("/api/newsletter")
+@RequiredArgsConstructor
+public class NewsletterController {
+
+    private final DomainSendScheduler sendScheduler;
+    private final SubscriptionService subscriptionService;
+    private final AdminToken adminToken;
+
+    /**
+     * GET /api/newsletter/stats/domains
+     * Send counters per recipient domain
+     */
+    @GetMapping("/stats/domains")
+    public ResponseEntity<?> domainStats(@RequestHeader(value = AdminToken.HEADER, required = false) String token) {
+        ResponseEntity<?> denied = checkToken(token);
+        return denied != null ? denied : ResponseEntity.ok(sendScheduler.stats());
+    }
+
+    /**
+     * GET /api/newsletter/stats/categories
+     * Active subscribers per category, from the in-memory index
+     */
+    @GetMapping("/stats/categories")
+    public ResponseEntity<?> categoryStats(@RequestHeader(value = AdminToken.HEADER, required = false) String token) {
+        ResponseEntity<?> denied = checkToken(token);
+        return denied != null ? denied : ResponseEntity.ok(subscriptionService.getSubscriberCountsByCategory());
+    }
+
+    private ResponseEntity<?> checkToken(String token) {
+        if (!adminToken.enabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!adminToken.matches(token)) {
+            return ResponseEntity.status(401).body(Map.of("error", "unauthorized"));
+        }
+        return null;
+    }
+}
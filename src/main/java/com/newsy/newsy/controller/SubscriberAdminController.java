@@ -0,0 +1,79 @@
+package com.newsy.newsy.controller;
+
+import com.newsy.newsy.service.SubscriberBulkService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Bulk subscriber transfer for operators. Requests must carry the X-Admin-Token header matching
+ * app.admin-token; while no token is configured the endpoints answer 404.
+ */
+@RestController
+@RequestMapping("/api/admin/subscribers")
+@RequiredArgsConstructor
+public class SubscriberAdminController {
+
+    private final SubscriberBulkService bulkService;
+    private final AdminToken adminToken;
+
+    /**
+     * POST /api/admin/subscribers/import?verified=false
+     * Body: CSV with a header row (text/csv) or one JSON subscriber per line (application/x-ndjson),
+     * e.g. an export. verified applies to rows without their own verified value.
+     * Returns the import report; verification mails are sent afterwards by the outbox.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importSubscribers(@RequestHeader(value = AdminToken.HEADER, required = false) String token,
+                                               @RequestParam(value = "verified", defaultValue = "false") boolean verified,
+                                               HttpServletRequest request) throws IOException {
+        if (!adminToken.enabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!adminToken.matches(token)) {
+            return ResponseEntity.status(401).body(Map.of("error", "unauthorized"));
+        }
+        SubscriberBulkService.Format format = SubscriberBulkService.Format
+                .fromMediaType(MediaType.parseMediaType(request.getContentType()))
+                .orElseThrow();
+        try {
+            return ResponseEntity.ok(bulkService.importSubscribers(request.getInputStream(), format, verified));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/admin/subscribers/export?format=ndjson|csv
+     * Streams every subscriber, including unsubscribe tokens, as an attachment
+     */
+    @GetMapping("/export")
+    public void exportSubscribers(@RequestHeader(value = AdminToken.HEADER, required = false) String token,
+                                  @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                  HttpServletResponse response) throws IOException {
+        if (!adminToken.enabled()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!adminToken.matches(token)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        SubscriberBulkService.Format exportFormat = SubscriberBulkService.Format.of(format).orElse(null);
+        if (exportFormat == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format must be csv or ndjson");
+            return;
+        }
+        response.setContentType(exportFormat.mediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"subscribers." + exportFormat.name().toLowerCase() + "\"");
+        bulkService.exportSubscribers(response.getOutputStream(), exportFormat);
+    }
+}
@@ -29,6 +29,7 @@ public class SubscriptionController {
         return switch (res) {
             case "verification_sent" -> ResponseEntity.ok(Map.of("status", "ok", "message", "verification_sent"));
             case "already_subscribed" -> ResponseEntity.ok(Map.of("status", "ok", "message", "already_subscribed"));
+            case "invalid_timezone" -> ResponseEntity.badRequest().body(Map.of("status", "error", "message", "invalid_timezone"));
             case "maximum_subscribers_reached" -> ResponseEntity.status(429).body(Map.of("status", "error", "message", "limit_reached"));
             default -> ResponseEntity.status(500).body(Map.of("status", "error", "message", res));
         };
@@ -0,0 +1,54 @@
+package com.newsy.newsy.controller;
+
+import com.newsy.newsy.service.TrackingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Base64;
+
+/**
+ * Newsletter open pixel and click redirect. Both only bump in-memory counters
+ * (see TrackingService), so they answer without any I/O.
+ */
+@RestController
+@RequestMapping("/api/track")
+@RequiredArgsConstructor
+public class TrackingController {
+
+    // 1x1 transparent GIF
+    private static final byte[] PIXEL = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private final TrackingService trackingService;
+
+    @Value("${FRONTEND_URL:http://localhost:4200}")
+    private String frontendUrl;
+
+    @GetMapping("/open")
+    public ResponseEntity<byte[]> open(@RequestParam("i") String issue, @RequestParam("s") String signature) {
+        trackingService.recordOpen(issue, signature);
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_GIF)
+                .cacheControl(CacheControl.noStore())
+                .body(PIXEL);
+    }
+
+    /**
+     * Redirects to the article; links with a bad signature go to the frontend instead,
+     * so this can never be used as an open redirect
+     */
+    @GetMapping("/click")
+    public ResponseEntity<Void> click(@RequestParam("i") String issue, @RequestParam("u") String url,
+                                      @RequestParam("s") String signature) {
+        String target = trackingService.recordClick(issue, url, signature) ? url : frontendUrl;
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .header(HttpHeaders.LOCATION, target)
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+}
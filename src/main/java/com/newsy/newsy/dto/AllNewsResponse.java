@@ -0,0 +1,45 @@
+package com.newsy.newsy.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Body of GET /api/news. Serialises itself: the per-category limit is applied while writing,
+ * so no trimmed copies of the grouped lists are built per request.
+ */
+public record AllNewsResponse(Map<String, List<NewsDTO>> news, int perCategory) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int totalArticles = 0;
+        for (List<NewsDTO> articles : news.values()) {
+            totalArticles += Math.min(articles.size(), perCategory);
+        }
+        gen.writeStartObject();
+        gen.writeNumberField("totalCategories", news.size());
+        gen.writeNumberField("totalArticles", totalArticles);
+        gen.writeObjectFieldStart("news");
+        for (Map.Entry<String, List<NewsDTO>> entry : news.entrySet()) {
+            gen.writeArrayFieldStart(entry.getKey());
+            List<NewsDTO> articles = entry.getValue();
+            for (int i = 0, n = Math.min(articles.size(), perCategory); i < n; i++) {
+                articles.get(i).writeTo(gen, provider);
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        serialize(gen, provider);
+    }
+}
@@ -0,0 +1,38 @@
+package com.newsy.newsy.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Body of GET /api/news/{category}, written straight to the generator
+ */
+public record CategoryNewsResponse(String category, List<NewsDTO> articles) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        if (articles.isEmpty()) {
+            gen.writeStringField("message", "No news found for category: " + category);
+        }
+        gen.writeStringField("category", category);
+        if (!articles.isEmpty()) {
+            gen.writeNumberField("count", articles.size());
+        }
+        gen.writeArrayFieldStart("articles");
+        for (NewsDTO article : articles) {
+            article.writeTo(gen, provider);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+        serialize(gen, provider);
+    }
+}
@@ -0,0 +1,24 @@
+package com.newsy.newsy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FetchJobStatus {
+
+    private String jobId;
+    private String state;
+    private String trigger;
+    private List<String> categories;
+    private int categoriesDone;
+    private int categoriesTotal;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -1,27 +1,24 @@
 package com.newsy.newsy.dto;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.newsy.newsy.model.News;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class NewsDTO {
-
-    private String id;
-    private String title;
-    private String author;
-    private String source;
-    private String url;
-    private LocalDateTime publishedAt;
-    private String category;
-    private String description;
-    private String imageUrl;
-    private String sourceIcon;
+public record NewsDTO(
+        String id,
+        String title,
+        String author,
+        String source,
+        String url,
+        LocalDateTime publishedAt,
+        String category,
+        String description,
+        String imageUrl,
+        String sourceIcon
+) {
 
     public static NewsDTO fromEntity(News news) {
         return new NewsDTO(
@@ -37,4 +34,23 @@ public class NewsDTO {
             news.getSourceIcon()
         );
     }
+
+    /**
+     * Write this article as a JSON object straight to the generator, with the same fields
+     * and date format as the default bean serialisation
+     */
+    public void writeTo(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("id", id);
+        gen.writeStringField("title", title);
+        gen.writeStringField("author", author);
+        gen.writeStringField("source", source);
+        gen.writeStringField("url", url);
+        provider.defaultSerializeField("publishedAt", publishedAt, gen);
+        gen.writeStringField("category", category);
+        gen.writeStringField("description", description);
+        gen.writeStringField("imageUrl", imageUrl);
+        gen.writeStringField("sourceIcon", sourceIcon);
+        gen.writeEndObject();
+    }
 }
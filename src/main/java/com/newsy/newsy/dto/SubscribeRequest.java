@@ -1,6 +1,8 @@
 package com.newsy.newsy.dto;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
@@ -14,5 +16,11 @@ public class SubscribeRequest {
 
     @NotEmpty
     private List<String> categories;
+
+    private String timezone;
+
+    @Min(0)
+    @Max(23)
+    private Integer deliveryHour;
 }
 
@@ -0,0 +1,34 @@
+package com.newsy.newsy.dto;
+
+import com.newsy.newsy.model.Subscriber;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Exported subscriber: everything but the id, in the shape SubscriberImportRow reads back.
+ * The token authorises unsubscribe links, so exports must be handled as confidential.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriberExportRow {
+
+    private String email;
+    private List<String> categories;
+    private String timezone;
+    private Integer deliveryHour;
+    private boolean verified;
+    private boolean unsubscribed;
+    private String lastNewsletterDate;
+    private String token;
+    private Instant createdAt;
+
+    public static SubscriberExportRow fromEntity(Subscriber s) {
+        return new SubscriberExportRow(s.getEmail(), s.getCategories(), s.getTimezone(), s.getDeliveryHour(),
+                s.isVerified(), s.isUnsubscribed(), s.getLastNewsletterDate(), s.getVerificationToken(), s.getCreatedAt());
+    }
+}
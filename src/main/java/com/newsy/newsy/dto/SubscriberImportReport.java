@@ -0,0 +1,23 @@
+package com.newsy.newsy.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class SubscriberImportReport {
+
+    private long rows;
+    private long imported;
+    private long updated;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private long verificationQueued;
+    private long millis;
+    // First rejected rows as "line N: reason"
+    private List<String> errors = new ArrayList<>();
+}
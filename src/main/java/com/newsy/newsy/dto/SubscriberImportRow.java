@@ -0,0 +1,31 @@
+package com.newsy.newsy.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * One row of a bulk subscriber import. Besides the sign-up fields it takes the state an export
+ * carries, so an export imported elsewhere keeps each subscriber as it was: unsubscribed rows stay
+ * suppressed, verified rows are not mailed again and the token keeps sent unsubscribe links working.
+ * Absent values fall back to the import defaults.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class SubscriberImportRow extends SubscribeRequest {
+
+    private boolean unsubscribed;
+
+    private Boolean verified;
+
+    @Pattern(regexp = "\\d{4}-\\d{2}-\\d{2}")
+    private String lastNewsletterDate;
+
+    @Size(min = 8, max = 100)
+    private String token;
+
+    private Instant createdAt;
+}
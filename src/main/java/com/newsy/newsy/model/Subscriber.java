@@ -25,5 +25,17 @@ public class Subscriber {
 
     private boolean unsubscribed = false;
 
+    // Delivery window: local hour in the subscriber's IANA timezone; null means the app defaults
+    private String timezone;
+    private Integer deliveryHour;
+    private String lastNewsletterDate;
+
     private Instant createdAt = Instant.now();
+    // Last change to the fields the subscriber index holds, so it can poll for changes only
+    private Instant updatedAt;
+
+    // Set while a verification mail for a bulk-imported subscriber waits in the outbox: when the
+    // next attempt is due, and how many attempts have failed so far
+    private Instant verificationQueuedAt;
+    private int verificationAttempts;
 }
\ No newline at end of file
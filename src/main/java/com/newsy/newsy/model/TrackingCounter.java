@@ -0,0 +1,25 @@
+package com.newsy.newsy.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Aggregated newsletter engagement: opens per issue, clicks per issue and article URL
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "newsletter_tracking")
+public class TrackingCounter {
+
+    @Id
+    private String id;
+
+    private String type;
+    private String issue;
+    private String url;
+    private long count;
+}
@@ -1,22 +1,36 @@
 package com.newsy.newsy.repository;
 
 import com.newsy.newsy.model.News;
-import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
-import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
-@Repository
-public interface NewsRepository extends MongoRepository<News, String> {
+/**
+ * Storage-neutral access to news articles. Implemented by the MongoDB repository
+ * (repository.mongo) and by the embedded file-backed engine (repository.embedded),
+ * selected with app.storage.
+ */
+public interface NewsRepository {
 
-    @Query(sort = "{ 'fetchedAt': -1, 'publishedAt': -1 }")
     List<News> findAllByOrderByFetchedAtDescPublishedAtDesc();
 
-    @Query(value = "{ 'category': ?0 }", sort = "{ 'fetchedAt': -1, 'publishedAt': -1 }")
+    /**
+     * Exact category match, newest fetch first (no limit is applied)
+     */
     List<News> findTop5ByCategoryIgnoreCaseOrderByFetchedAtDescPublishedAtDesc(String category);
 
     List<News> findTop5ByCategoryIgnoreCase(String category);
 
     void deleteByCategory(String category);
+
+    void deleteByCategoryIn(Collection<String> categories);
+
+    /**
+     * Remove the articles of a category except the given ids, e.g. the ones just written
+     */
+    void deleteByCategoryAndIdNotIn(String category, Collection<String> ids);
+
+    <S extends News> List<S> saveAll(Iterable<S> news);
+
+    long count();
 }
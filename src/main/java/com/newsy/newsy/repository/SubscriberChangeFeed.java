@@ -0,0 +1,33 @@
+package com.newsy.newsy.repository;
+
+import com.newsy.newsy.model.Subscriber;
+
+/**
+ * Push notifications of subscriber changes made by any application instance.
+ * Only available where the store supports it (MongoDB change streams need a replica set);
+ * consumers fall back to polling the repository otherwise.
+ */
+public interface SubscriberChangeFeed {
+
+    /**
+     * Start watching from now; fails if the store cannot stream changes
+     */
+    Cursor open();
+
+    interface Cursor extends AutoCloseable {
+
+        /**
+         * Block until the next change
+         */
+        Change next();
+
+        @Override
+        void close();
+    }
+
+    /**
+     * A changed subscriber; subscriber is null when the document was deleted
+     */
+    record Change(String id, Subscriber subscriber) {
+    }
+}
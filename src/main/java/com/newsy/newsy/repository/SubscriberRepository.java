@@ -1,10 +1,60 @@
 package com.newsy.newsy.repository;
 
 import com.newsy.newsy.model.Subscriber;
-import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SubscriberRepository extends MongoRepository<Subscriber, String> {
+/**
+ * Storage-neutral access to subscribers, see NewsRepository
+ */
+public interface SubscriberRepository {
     Optional<Subscriber> findByEmail(String email);
     Optional<Subscriber> findByVerificationToken(String token);
-}
\ No newline at end of file
+
+    long updateLastNewsletterDate(Collection<String> ids, String date);
+
+    <S extends Subscriber> S save(S subscriber);
+
+    List<Subscriber> findAll();
+
+    long count();
+
+    /**
+     * All subscribers, read lazily from a cursor; the stream must be closed
+     */
+    Stream<Subscriber> streamAllBy();
+
+    /**
+     * Insert subscribers whose email is not stored yet, in one unordered batch. For stored ones only
+     * categories and the delivery window are updated; verification and unsubscribe state are kept.
+     * Both get updatedAt set. Inserted subscribers get their ids set.
+     */
+    UpsertResult upsertByEmail(List<Subscriber> subscribers);
+
+    /**
+     * Subscribers whose updatedAt is at or after since
+     */
+    List<Subscriber> findByUpdatedAtGreaterThanEqual(Instant since);
+
+    /**
+     * Subscribers whose verification mail is due at or before dueBy, longest waiting first
+     */
+    List<Subscriber> findQueuedForVerification(Instant dueBy, int limit);
+
+    /**
+     * Take subscribers out of the verification outbox and reset their attempt count
+     */
+    long clearVerificationQueued(Collection<String> ids);
+
+    /**
+     * Count a failed verification mail and schedule the next attempt
+     */
+    long recordVerificationFailure(String id, Instant retryAt);
+
+    record UpsertResult(List<Subscriber> inserted, long updated, long failed) {
+    }
+}
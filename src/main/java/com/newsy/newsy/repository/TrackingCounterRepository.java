@@ -0,0 +1,15 @@
+package com.newsy.newsy.repository;
+
+import java.util.Map;
+
+/**
+ * Storage-neutral sink for newsletter tracking counters
+ */
+public interface TrackingCounterRepository {
+
+    /**
+     * Add each delta to its counter, creating missing counters. Keys are "type|issue" or
+     * "type|issue|url" (see TrackingService).
+     */
+    void incrementAll(Map<String, Long> deltas);
+}
@@ -0,0 +1,341 @@
+package com.newsy.newsy.repository.embedded;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsy.newsy.repository.mongo.MongoIndexes;
+import org.bson.types.ObjectId;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * One collection of the embedded engine: documents stored as JSON in an MVStore map keyed by id,
+ * plus one secondary index map per field MongoIndexes defines for the type. Index keys are
+ * the lower-cased value, a NUL and the id, so a value lookup is a prefix range scan and serves
+ * both exact and case-insensitive queries; exact matches are re-checked on the document.
+ * Ids are ObjectId hex strings, so key order is insertion order like Mongo's natural order.
+ * Writes are serialised per store and committed before returning. The write lock is a
+ * ReentrantLock rather than a monitor, so request threads queued behind a commit do not pin
+ * their carrier when running on virtual threads.
+ */
+public class EmbeddedDocumentStore<T> {
+
+    private static final char INDEX_SEPARATOR = '\0';
+    private static final DateTimeFormatter INSTANT_KEY = DateTimeFormatter
+            .ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'").withZone(ZoneOffset.UTC);
+    private static final Map<MVStore, ReentrantLock> WRITE_LOCKS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MVStore store;
+    private final ReentrantLock writeLock;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final Field idField;
+    private final MVMap<String, String> documents;
+    private final Map<Field, MVMap<String, String>> indexes = new LinkedHashMap<>();
+
+    public EmbeddedDocumentStore(MVStore store, ObjectMapper objectMapper, Class<T> type) {
+        this.store = store;
+        this.writeLock = WRITE_LOCKS.computeIfAbsent(store, s -> new ReentrantLock());
+        this.objectMapper = objectMapper;
+        this.type = type;
+        Document document = type.getAnnotation(Document.class);
+        String collection = document != null && !document.collection().isEmpty()
+                ? document.collection() : type.getSimpleName().toLowerCase(Locale.ROOT);
+        this.documents = store.openMap(collection);
+
+        Field id = null;
+        List<String> indexedFields = MongoIndexes.indexedFields(type);
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(org.springframework.data.annotation.Id.class)) {
+                id = field;
+            }
+            if (indexedFields.contains(field.getName())) {
+                field.setAccessible(true);
+                indexes.put(field, store.openMap(collection + "." + field.getName()));
+            }
+        }
+        this.idField = Objects.requireNonNull(id, () -> type.getName() + " has no @Id field");
+        this.idField.setAccessible(true);
+    }
+
+    public Optional<T> findById(String id) {
+        String json = documents.get(id);
+        return json == null ? Optional.empty() : Optional.of(read(json));
+    }
+
+    public List<T> findAll() {
+        List<T> result = new ArrayList<>(documents.size());
+        documents.values().forEach(json -> result.add(read(json)));
+        return result;
+    }
+
+    /**
+     * All documents, deserialised one at a time while the stream is consumed
+     */
+    public Stream<T> stream() {
+        return documents.values().stream().map(this::read);
+    }
+
+    /**
+     * Documents with a value in the indexed field, in ascending order of its index key (time order
+     * for Instants)
+     */
+    public List<T> findIndexed(String field, int limit) {
+        return findIndexedFrom(field, null, limit);
+    }
+
+    /**
+     * Like findIndexed, starting at the first value at or after from (all values if null)
+     */
+    public List<T> findIndexedFrom(String field, Object from, int limit) {
+        Field f = indexField(field);
+        List<T> result = new ArrayList<>();
+        String start = from == null ? null : indexKey(indexValue(from), "");
+        for (var it = index(field).keyIterator(start); it.hasNext() && result.size() < limit; ) {
+            String key = it.next();
+            String json = documents.get(key.substring(key.lastIndexOf(INDEX_SEPARATOR) + 1));
+            if (json != null) {
+                T doc = read(json);
+                // Skips keys left behind by an older encoding of the value
+                if (get(f, doc) != null) {
+                    result.add(doc);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Documents whose indexed field equals value ignoring case, in id order
+     */
+    public List<T> findByIndex(String field, String value, int limit) {
+        MVMap<String, String> index = index(field);
+        String prefix = indexKey(value, "");
+        List<T> result = new ArrayList<>();
+        for (var it = index.keyIterator(prefix); it.hasNext() && result.size() < limit; ) {
+            String key = it.next();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            String json = documents.get(key.substring(prefix.length()));
+            if (json != null) {
+                result.add(read(json));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Documents whose indexed field equals value exactly
+     */
+    public List<T> findByIndexExact(String field, String value) {
+        Field f = indexField(field);
+        return findByIndex(field, value, Integer.MAX_VALUE).stream()
+                .filter(doc -> Objects.equals(get(f, doc), value))
+                .toList();
+    }
+
+    public long count() {
+        return documents.sizeAsLong();
+    }
+
+    public <S extends T> S save(S doc) {
+        writeLock.lock();
+        try {
+            put(doc);
+            store.commit();
+        } finally {
+            writeLock.unlock();
+        }
+        return doc;
+    }
+
+    public <S extends T> List<S> saveAll(Iterable<S> docs) {
+        List<S> saved = new ArrayList<>();
+        writeLock.lock();
+        try {
+            for (S doc : docs) {
+                put(doc);
+                saved.add(doc);
+            }
+            store.commit();
+        } finally {
+            writeLock.unlock();
+        }
+        return saved;
+    }
+
+    /**
+     * Insert each document unless one with the same value in the indexed field is stored; in that
+     * case merge(incoming, stored) is applied to the stored one instead. One commit for the batch;
+     * returns the inserted documents
+     */
+    public List<T> upsertAll(String field, List<T> docs, BiConsumer<T, T> merge) {
+        Field f = indexField(field);
+        List<T> inserted = new ArrayList<>();
+        writeLock.lock();
+        try {
+            for (T doc : docs) {
+                Object value = get(f, doc);
+                Optional<T> stored = value == null ? Optional.empty()
+                        : findByIndexExact(field, value.toString()).stream().findFirst();
+                if (stored.isPresent()) {
+                    merge.accept(doc, stored.get());
+                    put(stored.get());
+                } else {
+                    put(doc);
+                    inserted.add(doc);
+                }
+            }
+            store.commit();
+        } finally {
+            writeLock.unlock();
+        }
+        return inserted;
+    }
+
+    /**
+     * Apply changes to each existing document atomically with respect to other writes (like a
+     * targeted $set); returns the number of documents changed
+     */
+    public long update(Collection<String> ids, Consumer<T> change) {
+        long updated = 0;
+        writeLock.lock();
+        try {
+            for (String id : ids) {
+                String json = documents.get(id);
+                if (json != null) {
+                    T doc = read(json);
+                    change.accept(doc);
+                    put(doc);
+                    updated++;
+                }
+            }
+            store.commit();
+        } finally {
+            writeLock.unlock();
+        }
+        return updated;
+    }
+
+    public long deleteAll(Collection<T> docs) {
+        long deleted = 0;
+        writeLock.lock();
+        try {
+            for (T doc : docs) {
+                String id = (String) get(idField, doc);
+                String previous = documents.remove(id);
+                if (previous != null) {
+                    unindex(id, read(previous));
+                    deleted++;
+                }
+            }
+            store.commit();
+        } finally {
+            writeLock.unlock();
+        }
+        return deleted;
+    }
+
+    private void put(T doc) {
+        String id = (String) get(idField, doc);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            set(idField, doc, id);
+        }
+        String previous = documents.put(id, write(doc));
+        if (previous != null) {
+            unindex(id, read(previous));
+        }
+        for (Map.Entry<Field, MVMap<String, String>> index : indexes.entrySet()) {
+            Object value = get(index.getKey(), doc);
+            if (value != null) {
+                index.getValue().put(indexKey(indexValue(value), id), "");
+            }
+        }
+    }
+
+    private void unindex(String id, T doc) {
+        for (Map.Entry<Field, MVMap<String, String>> index : indexes.entrySet()) {
+            Object value = get(index.getKey(), doc);
+            if (value != null) {
+                index.getValue().remove(indexKey(indexValue(value), id));
+            }
+        }
+    }
+
+    private MVMap<String, String> index(String field) {
+        return indexes.get(indexField(field));
+    }
+
+    private Field indexField(String field) {
+        return indexes.keySet().stream()
+                .filter(f -> f.getName().equals(field))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(type.getSimpleName() + "." + field + " is not indexed"));
+    }
+
+    /**
+     * String form of an indexed value. Instants get a fixed width (always nine fraction digits),
+     * so key order is time order; Instant.toString() drops zero fractions and would sort
+     * "...:20Z" after "...:20.123Z".
+     */
+    private static String indexValue(Object value) {
+        return value instanceof Instant instant ? INSTANT_KEY.format(instant) : value.toString();
+    }
+
+    private static String indexKey(String value, String id) {
+        return value.toLowerCase(Locale.ROOT) + INDEX_SEPARATOR + id;
+    }
+
+    private T read(String json) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt " + type.getSimpleName() + " document", e);
+        }
+    }
+
+    private String write(T doc) {
+        try {
+            return objectMapper.writeValueAsString(doc);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise " + type.getSimpleName(), e);
+        }
+    }
+
+    private static Object get(Field field, Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void set(Field field, Object target, Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
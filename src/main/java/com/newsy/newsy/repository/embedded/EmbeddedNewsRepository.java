@@ -0,0 +1,76 @@
+package com.newsy.newsy.repository.embedded;
+
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.repository.NewsRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * NewsRepository on the embedded engine, mirroring the Mongo queries: descending sorts put
+ * missing dates last, the category @Query is an exact match, derived "IgnoreCase" lookups are not
+ */
+@RequiredArgsConstructor
+public class EmbeddedNewsRepository implements NewsRepository {
+
+    private static final Comparator<News> NEWEST_FIRST = Comparator
+            .comparing(News::getFetchedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed()
+            .thenComparing(Comparator.comparing(News::getPublishedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed());
+
+    private final EmbeddedDocumentStore<News> store;
+
+    @Override
+    public List<News> findAllByOrderByFetchedAtDescPublishedAtDesc() {
+        List<News> all = store.findAll();
+        all.sort(NEWEST_FIRST);
+        return all;
+    }
+
+    @Override
+    public List<News> findTop5ByCategoryIgnoreCaseOrderByFetchedAtDescPublishedAtDesc(String category) {
+        return store.findByIndexExact("category", category).stream()
+                .sorted(NEWEST_FIRST)
+                .toList();
+    }
+
+    @Override
+    public List<News> findTop5ByCategoryIgnoreCase(String category) {
+        return store.findByIndex("category", category, 5);
+    }
+
+    @Override
+    public void deleteByCategory(String category) {
+        store.deleteAll(store.findByIndexExact("category", category));
+    }
+
+    @Override
+    public void deleteByCategoryIn(Collection<String> categories) {
+        Set<String> wanted = Set.copyOf(categories);
+        store.deleteAll(wanted.stream()
+                .flatMap(c -> store.findByIndexExact("category", c).stream())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void deleteByCategoryAndIdNotIn(String category, Collection<String> ids) {
+        Set<String> keep = Set.copyOf(ids);
+        store.deleteAll(store.findByIndexExact("category", category).stream()
+                .filter(news -> !keep.contains(news.getId()))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public <S extends News> List<S> saveAll(Iterable<S> news) {
+        return store.saveAll(news);
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.newsy.newsy.repository.embedded;
+
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * SubscriberRepository on the embedded engine; email and token lookups use the field indexes
+ */
+@RequiredArgsConstructor
+public class EmbeddedSubscriberRepository implements SubscriberRepository {
+
+    private final EmbeddedDocumentStore<Subscriber> store;
+
+    @Override
+    public Optional<Subscriber> findByEmail(String email) {
+        return store.findByIndexExact("email", email).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Subscriber> findByVerificationToken(String token) {
+        return store.findByIndexExact("verificationToken", token).stream().findFirst();
+    }
+
+    @Override
+    public long updateLastNewsletterDate(Collection<String> ids, String date) {
+        return store.update(Set.copyOf(ids), s -> s.setLastNewsletterDate(date));
+    }
+
+    @Override
+    public <S extends Subscriber> S save(S subscriber) {
+        return store.save(subscriber);
+    }
+
+    @Override
+    public List<Subscriber> findAll() {
+        return store.findAll();
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    @Override
+    public Stream<Subscriber> streamAllBy() {
+        return store.stream();
+    }
+
+    @Override
+    public List<Subscriber> findByUpdatedAtGreaterThanEqual(Instant since) {
+        return store.findIndexedFrom("updatedAt", since, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(List<Subscriber> subscribers) {
+        Instant now = Instant.now();
+        subscribers.forEach(s -> s.setUpdatedAt(now));
+        List<Subscriber> inserted = store.upsertAll("email", subscribers, (incoming, stored) -> {
+            stored.setUpdatedAt(now);
+            stored.setCategories(incoming.getCategories());
+            if (incoming.getTimezone() != null) {
+                stored.setTimezone(incoming.getTimezone());
+            }
+            if (incoming.getDeliveryHour() != null) {
+                stored.setDeliveryHour(incoming.getDeliveryHour());
+            }
+        });
+        return new UpsertResult(inserted, subscribers.size() - inserted.size(), 0);
+    }
+
+    @Override
+    public List<Subscriber> findQueuedForVerification(Instant dueBy, int limit) {
+        // Index order is due time, so anything not yet due is at the tail
+        return store.findIndexed("verificationQueuedAt", limit).stream()
+                .filter(s -> !s.getVerificationQueuedAt().isAfter(dueBy))
+                .toList();
+    }
+
+    @Override
+    public long clearVerificationQueued(Collection<String> ids) {
+        return store.update(Set.copyOf(ids), s -> {
+            s.setVerificationQueuedAt(null);
+            s.setVerificationAttempts(0);
+        });
+    }
+
+    @Override
+    public long recordVerificationFailure(String id, Instant retryAt) {
+        return store.update(Set.of(id), s -> {
+            s.setVerificationQueuedAt(retryAt);
+            s.setVerificationAttempts(s.getVerificationAttempts() + 1);
+        });
+    }
+}
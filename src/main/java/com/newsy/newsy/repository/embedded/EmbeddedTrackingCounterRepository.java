@@ -0,0 +1,32 @@
+package com.newsy.newsy.repository.embedded;
+
+import com.newsy.newsy.model.TrackingCounter;
+import com.newsy.newsy.repository.TrackingCounterRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TrackingCounterRepository on the embedded engine; all deltas are applied in one commit
+ */
+@RequiredArgsConstructor
+public class EmbeddedTrackingCounterRepository implements TrackingCounterRepository {
+
+    private final EmbeddedDocumentStore<TrackingCounter> store;
+
+    @Override
+    public synchronized void incrementAll(Map<String, Long> deltas) {
+        List<TrackingCounter> updated = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            TrackingCounter counter = store.findById(key).orElseGet(() -> {
+                String[] parts = key.split("\\|", 3);
+                return new TrackingCounter(key, parts[0], parts[1], parts.length > 2 ? parts[2] : null, 0);
+            });
+            counter.setCount(counter.getCount() + delta);
+            updated.add(counter);
+        });
+        store.saveAll(updated);
+    }
+}
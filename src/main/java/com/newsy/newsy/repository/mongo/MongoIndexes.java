@@ -0,0 +1,68 @@
+package com.newsy.newsy.repository.mongo;
+
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.model.Subscriber;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The collection indexes the queries rely on, and their creation in Mongo. This is the only place
+ * indexes are defined: Spring Boot leaves auto-index creation from @Indexed off, and the embedded
+ * engine keeps one index map per field listed here. createIndex is a no-op for an index that
+ * already exists. Runs in the background after startup, so an unreachable server does not delay it.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexes {
+
+    private static final Map<Class<?>, List<Index>> INDEXES = Map.of(
+            News.class, List.of(new Index("category", Sort.Direction.ASC)),
+            Subscriber.class, List.of(
+                    // Unique: concurrent subscribes or imports of one address must not create two documents
+                    new Index("email", Sort.Direction.ASC).unique(),
+                    new Index("verificationToken", Sort.Direction.ASC),
+                    // Verification outbox: only queued subscribers carry the field
+                    new Index("verificationQueuedAt", Sort.Direction.ASC).sparse(),
+                    // Subscriber index polling: documents written before the field existed lack it
+                    new Index("updatedAt", Sort.Direction.ASC).sparse()));
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Fields indexed for a document type, in definition order
+     */
+    public static List<String> indexedFields(Class<?> type) {
+        return INDEXES.getOrDefault(type, List.of()).stream()
+                .map(index -> index.getIndexKeys().keySet().iterator().next())
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread t = new Thread(this::ensureAll, "mongo-indexes");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void ensureAll() {
+        INDEXES.forEach((type, indexes) -> indexes.forEach(index -> ensure(type, index)));
+    }
+
+    private void ensure(Class<?> type, Index index) {
+        try {
+            String name = mongoTemplate.indexOps(type).createIndex(index);
+            log.debug("Index {} on {} is in place", name, mongoTemplate.getCollectionName(type));
+        } catch (Exception e) {
+            log.error("Could not create index {} on {}: {}", index.getIndexKeys().toJson(),
+                    mongoTemplate.getCollectionName(type), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.newsy.newsy.repository.mongo;
+
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.repository.NewsRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MongoNewsRepository extends NewsRepository, MongoRepository<News, String> {
+
+    @Override
+    @Query(sort = "{ 'fetchedAt': -1, 'publishedAt': -1 }")
+    List<News> findAllByOrderByFetchedAtDescPublishedAtDesc();
+
+    @Override
+    @Query(value = "{ 'category': ?0 }", sort = "{ 'fetchedAt': -1, 'publishedAt': -1 }")
+    List<News> findTop5ByCategoryIgnoreCaseOrderByFetchedAtDescPublishedAtDesc(String category);
+
+    @Override
+    List<News> findTop5ByCategoryIgnoreCase(String category);
+
+    @Override
+    void deleteByCategory(String category);
+
+    @Override
+    void deleteByCategoryIn(Collection<String> categories);
+
+    @Override
+    void deleteByCategoryAndIdNotIn(String category, Collection<String> ids);
+}
@@ -0,0 +1,18 @@
+package com.newsy.newsy.repository.mongo;
+
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Subscriber operations that need MongoTemplate (bulk writes, sorted limits), implemented by
+ * MongoSubscriberBulkOperationsImpl and mixed into MongoSubscriberRepository
+ */
+public interface MongoSubscriberBulkOperations {
+
+    SubscriberRepository.UpsertResult upsertByEmail(List<Subscriber> subscribers);
+
+    List<Subscriber> findQueuedForVerification(Instant dueBy, int limit);
+}
@@ -0,0 +1,89 @@
+package com.newsy.newsy.repository.mongo;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Upserts by email as one unordered bulk write: a failing row does not stop the others
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class MongoSubscriberBulkOperationsImpl implements MongoSubscriberBulkOperations {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public SubscriberRepository.UpsertResult upsertByEmail(List<Subscriber> subscribers) {
+        if (subscribers.isEmpty()) {
+            return new SubscriberRepository.UpsertResult(List.of(), 0, 0);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Subscriber.class);
+        Instant now = Instant.now();
+        for (Subscriber s : subscribers) {
+            Update update = new Update()
+                    .set("categories", s.getCategories())
+                    .set("updatedAt", now)
+                    .setOnInsert("verified", s.isVerified())
+                    .setOnInsert("unsubscribed", s.isUnsubscribed())
+                    .setOnInsert("verificationToken", s.getVerificationToken())
+                    .setOnInsert("createdAt", s.getCreatedAt());
+            if (s.getTimezone() != null) {
+                update.set("timezone", s.getTimezone());
+            }
+            if (s.getDeliveryHour() != null) {
+                update.set("deliveryHour", s.getDeliveryHour());
+            }
+            if (s.getLastNewsletterDate() != null) {
+                update.setOnInsert("lastNewsletterDate", s.getLastNewsletterDate());
+            }
+            if (s.getVerificationQueuedAt() != null) {
+                update.setOnInsert("verificationQueuedAt", s.getVerificationQueuedAt());
+            }
+            bulk.upsert(new Query(where("email").is(s.getEmail())), update);
+        }
+
+        BulkWriteResult result;
+        long failed = 0;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            result = e.getResult();
+            failed = e.getErrors().size();
+            log.warn("{} of {} subscriber upserts failed, first error: {}", failed, subscribers.size(),
+                    e.getErrors().get(0).getMessage());
+        }
+
+        List<Subscriber> inserted = new ArrayList<>(result.getUpserts().size());
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            Subscriber s = subscribers.get(upsert.getIndex());
+            s.setId(upsert.getId().asObjectId().getValue().toHexString());
+            inserted.add(s);
+        }
+        return new SubscriberRepository.UpsertResult(inserted, result.getMatchedCount(), failed);
+    }
+
+    @Override
+    public List<Subscriber> findQueuedForVerification(Instant dueBy, int limit) {
+        // Served by the sparse verificationQueuedAt index (MongoIndexes)
+        Query query = new Query(where("verificationQueuedAt").lte(dueBy))
+                .with(Sort.by("verificationQueuedAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, Subscriber.class);
+    }
+}
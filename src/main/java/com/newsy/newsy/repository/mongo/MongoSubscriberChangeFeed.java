@@ -0,0 +1,51 @@
+package com.newsy.newsy.repository.mongo;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Change stream on the subscribers collection with the post-image looked up for updates
+ */
+@RequiredArgsConstructor
+public class MongoSubscriberChangeFeed implements SubscriberChangeFeed {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Cursor open() {
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(Subscriber.class))
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .cursor();
+
+        return new Cursor() {
+            @Override
+            public Change next() {
+                ChangeStreamDocument<Document> event = cursor.next();
+                String id = idOf(event.getDocumentKey() == null ? null : event.getDocumentKey().get("_id"));
+                Document full = event.getFullDocument();
+                return new Change(id, full == null ? null : mongoTemplate.getConverter().read(Subscriber.class, full));
+            }
+
+            @Override
+            public void close() {
+                cursor.close();
+            }
+        };
+    }
+
+    private static String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
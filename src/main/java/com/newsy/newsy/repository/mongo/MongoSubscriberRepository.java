@@ -0,0 +1,44 @@
+package com.newsy.newsy.repository.mongo;
+
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface MongoSubscriberRepository extends SubscriberRepository, MongoRepository<Subscriber, String>,
+        MongoSubscriberBulkOperations {
+
+    @Override
+    Optional<Subscriber> findByEmail(String email);
+
+    @Override
+    Optional<Subscriber> findByVerificationToken(String token);
+
+    @Override
+    @Query("{ '_id': { '$in': ?0 } }")
+    @Update("{ '$set': { 'lastNewsletterDate': ?1 } }")
+    long updateLastNewsletterDate(Collection<String> ids, String date);
+
+    @Override
+    Stream<Subscriber> streamAllBy();
+
+    @Override
+    List<Subscriber> findByUpdatedAtGreaterThanEqual(Instant since);
+
+    @Override
+    @Query("{ '_id': { '$in': ?0 } }")
+    @Update("{ '$unset': { 'verificationQueuedAt': 1, 'verificationAttempts': 1 } }")
+    long clearVerificationQueued(Collection<String> ids);
+
+    @Override
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'verificationQueuedAt': ?1 }, '$inc': { 'verificationAttempts': 1 } }")
+    long recordVerificationFailure(String id, Instant retryAt);
+}
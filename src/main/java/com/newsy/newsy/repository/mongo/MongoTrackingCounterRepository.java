@@ -0,0 +1,38 @@
+package com.newsy.newsy.repository.mongo;
+
+import com.newsy.newsy.model.TrackingCounter;
+import com.newsy.newsy.repository.TrackingCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Applies tracking deltas as one unordered bulk of $inc upserts
+ */
+@RequiredArgsConstructor
+public class MongoTrackingCounterRepository implements TrackingCounterRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementAll(Map<String, Long> deltas) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrackingCounter.class);
+        deltas.forEach((key, delta) -> {
+            String[] parts = key.split("\\|", 3);
+            Update update = new Update().inc("count", delta)
+                    .setOnInsert("type", parts[0])
+                    .setOnInsert("issue", parts[1]);
+            if (parts.length > 2) {
+                update.setOnInsert("url", parts[2]);
+            }
+            bulk.upsert(new Query(where("_id").is(key)), update);
+        });
+        bulk.execute();
+    }
+}
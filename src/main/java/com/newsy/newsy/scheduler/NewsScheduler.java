@@ -1,35 +1,70 @@
 package com.newsy.newsy.scheduler;
 
-import com.newsy.newsy.service.NewsService;
+import com.newsy.newsy.service.CategoryFetchPlanner;
+import com.newsy.newsy.service.NewsFetchJobService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.List;
+
 @Component
 @Slf4j
 public class NewsScheduler {
 
-    private final NewsService newsService;
+    private final NewsFetchJobService fetchJobService;
+    private final CategoryFetchPlanner planner;
+
+    @Value("${news.fetch.adaptive:true}")
+    private boolean adaptive;
 
-    public NewsScheduler(NewsService newsService) {
-        this.newsService = newsService;
+    public NewsScheduler(NewsFetchJobService fetchJobService, CategoryFetchPlanner planner) {
+        this.fetchJobService = fetchJobService;
+        this.planner = planner;
     }
 
     /**
      * Scheduled job to fetch news daily at 8:00 AM
      * Cron expression: 0 0 8 * * ? (sec min hour day month weekday)
+     * Only used when adaptive fetching is disabled (news.fetch.adaptive=false)
      */
     @Scheduled(cron = "${news.fetch.cron}", zone = "${app.timezone:UTC}")
     public void fetchDailyNews() {
+        if (adaptive) {
+            return;
+        }
         log.info("=== Starting Daily News Fetch Job ===");
         try {
-            newsService.fetchAndStoreNews();
-            log.info("=== Daily News Fetch Job Completed Successfully ===");
+            NewsFetchJobService.TriggerResult result = fetchJobService.trigger("scheduled");
+            log.info("=== Daily News Fetch Job {} {} ===", result.job().getJobId(),
+                    result.coalesced() ? "joined running fetch" : "submitted");
         } catch (Exception e) {
             log.error("=== Daily News Fetch Job Failed: {} ===", e.getMessage(), e);
         }
     }
 
+    /**
+     * Adaptive fetching: every tick, fetch the categories whose own polling interval has elapsed
+     */
+    @Scheduled(initialDelayString = "${news.fetch.tick:PT1M}", fixedDelayString = "${news.fetch.tick:PT1M}")
+    public void fetchDueCategories() {
+        if (!adaptive) {
+            return;
+        }
+        try {
+            List<String> due = planner.dueCategories(Instant.now());
+            if (!due.isEmpty()) {
+                NewsFetchJobService.TriggerResult result = fetchJobService.trigger("adaptive", due);
+                planner.refund(result.alreadyCovered());
+                log.info("Adaptive fetch of {} -> job {} ({})", due, result.job().getJobId(), result.job().getState());
+            }
+        } catch (Exception e) {
+            log.error("Adaptive news fetch failed: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Optional: Run on application startup (for testing)
      */
@@ -37,7 +72,7 @@ public class NewsScheduler {
     public void fetchNewsOnStartup() {
         log.info("=== Fetching news on application startup ===");
         try {
-            newsService.fetchAndStoreNews();
+            fetchJobService.trigger("startup");
         } catch (Exception e) {
             log.error("=== Startup news fetch failed: {} ===", e.getMessage(), e);
         }
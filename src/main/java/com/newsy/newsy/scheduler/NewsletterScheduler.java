@@ -1,22 +1,38 @@
 package com.newsy.newsy.scheduler;
 
 import com.newsy.newsy.model.News;
-import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.service.DomainSendScheduler;
 import com.newsy.newsy.service.EmailService;
 import com.newsy.newsy.service.NewsService;
+import com.newsy.newsy.service.NewsletterMimeTemplate;
+import com.newsy.newsy.service.RelatedArticlesIndex;
+import com.newsy.newsy.service.SubscriberIndex.Audience;
+import com.newsy.newsy.service.SubscriberIndex.Member;
 import com.newsy.newsy.service.SubscriptionService;
+import com.newsy.newsy.service.TrackingService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import jakarta.mail.MessagingException;
-
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,56 +43,296 @@ public class NewsletterScheduler {
     private final SubscriptionService subscriptionService;
     private final EmailService emailService;
     private final NewsService newsService;
+    private final DomainSendScheduler sendScheduler;
+    private final TrackingService trackingService;
+    private final RelatedArticlesIndex relatedArticles;
 
     @Value("${app.max-articles-per-mail:8}")
     private int maxArticlesPerMail;
 
+    @Value("${app.timezone:UTC}")
+    private String defaultTimezone;
+
+    @Value("${newsletter.delivery.default-hour:9}")
+    private int defaultDeliveryHour;
+
+    @Value("${newsletter.delivery.rolling:true}")
+    private boolean rollingDelivery;
+
+    // Articles at least this similar to one already in the mail are treated as the same story
+    @Value("${newsletter.duplicate-score:0.5}")
+    private double duplicateScore;
+
+    // A subscriber whose newsletter failed (or had no articles) is retried after this, doubling per attempt that day
+    @Value("${newsletter.delivery.retry-backoff:PT30M}")
+    private Duration retryBackoff;
+
+    // Delivered dates are saved every this many sends, so a run killed midway resends at most one batch
+    @Value("${newsletter.delivery.mark-batch:10}")
+    private int markBatch;
+
+    // Runs are handed to their own thread: paced sends can take long and must not hold Spring's
+    // single scheduling thread, which the news fetch ticks share. At most one run at a time.
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "newsletter-delivery");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean delivering = new AtomicBoolean();
+    private final Map<String, Attempt> failedAttempts = new ConcurrentHashMap<>();
+    private Instant startedAt = Instant.now();
+
+    /**
+     * Failed deliveries of one subscriber on their local date
+     */
+    private record Attempt(String date, int count, Instant retryAt) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delivery.shutdownNow();
+    }
+
 //    @Scheduled(initialDelay = 10000, fixedDelay = Long.MAX_VALUE)
 
+    /**
+     * Legacy mode: one send to every subscriber at newsletter.email.cron.
+     * Only used when rolling delivery is disabled (newsletter.delivery.rolling=false)
+     */
     @Scheduled(cron = "${newsletter.email.cron}", zone = "${app.timezone:UTC}")
     public void sendDaily() {
-        log.info("Executing Daily Newsletter Job");
-        List<Subscriber> subs = subscriptionService.getVerifiedActiveSubscribers();
-        log.info("Found {} verified active subscribers", subs == null ? 0 : subs.size());
+        if (rollingDelivery) {
+            return;
+        }
+        runExclusively("daily", () -> {
+            log.info("Executing Daily Newsletter Job");
+            List<Audience> audiences = subscriptionService.getAudiences();
+            log.info("Found {} verified active subscribers",
+                    audiences.stream().mapToInt(a -> a.members().size()).sum());
+            send(audiences, Instant.now());
+        });
+    }
 
-        for (Subscriber s : subs) {
-            String email = s == null ? "<null-subscriber>" : s.getEmail();
-            log.info("Compiling Newsletter for: {}", email);
+    /**
+     * Rolling delivery: every tick, release the subscribers whose local delivery slot has passed
+     * and who have not received today's issue yet. Slots are spread over the delivery hour by
+     * subscriber, so the mail relay and the store see a steady stream instead of one daily spike.
+     * A tick is skipped while the previous run is still sending.
+     */
+    @Scheduled(initialDelayString = "${newsletter.delivery.tick:PT5M}", fixedDelayString = "${newsletter.delivery.tick:PT5M}")
+    public void releaseDueBucket() {
+        if (!rollingDelivery) {
+            return;
+        }
+        runExclusively("rolling", () -> {
+            Instant now = Instant.now();
+            failedAttempts.values().removeIf(a -> a.retryAt().isBefore(now.minus(Duration.ofDays(2))));
+            List<Audience> due = subscriptionService.getAudiences().stream()
+                    .map(a -> new Audience(a.categories(), a.members().stream().filter(m -> isDue(m, now)).toList()))
+                    .filter(a -> !a.members().isEmpty())
+                    .toList();
+            if (!due.isEmpty()) {
+                log.info("Releasing newsletter bucket with {} due subscribers",
+                        due.stream().mapToInt(a -> a.members().size()).sum());
+                send(due, now);
+            }
+        });
+    }
+
+    private void runExclusively(String run, Runnable task) {
+        if (!delivering.compareAndSet(false, true)) {
+            log.info("Previous newsletter run still sending, skipping this {} run", run);
+            return;
+        }
+        try {
+            delivery.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("Newsletter {} run failed: {}", run, e.getMessage(), e);
+                } finally {
+                    delivering.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            delivering.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the subscriber's slot today (local delivery hour, minute spread by subscriber) has
+     * passed and today's issue has not been delivered. A subscriber who never got an issue is only
+     * due for slots after startup or sign-up, so a deploy does not release every slot that already
+     * passed today at once. After a failed attempt the subscriber waits for the retry time.
+     */
+    boolean isDue(Member s, Instant now) {
+        ZoneId zone = zoneOf(s);
+        LocalDate today = now.atZone(zone).toLocalDate();
+        if (today.toString().equals(s.lastNewsletterDate())) {
+            return false;
+        }
+        int hour = s.deliveryHour() != null ? s.deliveryHour() : defaultDeliveryHour;
+        int minute = Math.floorMod(key(s).hashCode(), 60);
+        Instant slot = today.atTime(LocalTime.of(hour, minute)).atZone(zone).toInstant();
+        if (now.isBefore(slot)) {
+            return false;
+        }
+        if (s.lastNewsletterDate() == null) {
+            Instant since = s.createdAt() != null && s.createdAt().isAfter(startedAt) ? s.createdAt() : startedAt;
+            if (slot.isBefore(since)) {
+                return false;
+            }
+        }
+        Attempt attempt = failedAttempts.get(key(s));
+        return attempt == null || !attempt.date().equals(today.toString()) || !now.isBefore(attempt.retryAt());
+    }
+
+    private void recordFailure(Member s, Instant now) {
+        String today = now.atZone(zoneOf(s)).toLocalDate().toString();
+        failedAttempts.compute(key(s), (k, previous) -> {
+            int count = previous != null && previous.date().equals(today) ? previous.count() + 1 : 1;
+            return new Attempt(today, count, now.plus(retryBackoff.multipliedBy(1L << Math.min(count - 1, 10))));
+        });
+    }
+
+    private static String key(Member s) {
+        return s.id() != null ? s.id() : String.valueOf(s.email());
+    }
+
+    /**
+     * Drop articles that tell the same story as one picked before them, e.g. one report filed
+     * under two of the subscriber's categories
+     */
+    private List<News> diversify(List<News> candidates) {
+        List<News> picked = new ArrayList<>(candidates.size());
+        for (News candidate : candidates) {
+            boolean duplicate = picked.stream().anyMatch(p -> Objects.equals(p.getUrl(), candidate.getUrl())
+                    || relatedArticles.isSimilar(p.getId(), candidate.getId(), duplicateScore));
+            if (!duplicate) {
+                picked.add(candidate);
+            }
+        }
+        return picked;
+    }
+
+    private ZoneId zoneOf(Member s) {
+        try {
+            return ZoneId.of(s.timezone() != null ? s.timezone() : defaultTimezone);
+        } catch (DateTimeException e) {
+            return ZoneId.of(defaultTimezone);
+        }
+    }
+
+    /**
+     * Compile one newsletter per audience (every member gets the same articles) and send it to
+     * each member, paced per recipient domain
+     */
+    private void send(List<Audience> audiences, Instant now) {
+        List<DomainSendScheduler.SendJob> jobs = new ArrayList<>();
+        // Delivered subscriber id -> local date, not yet saved; guarded by its own monitor
+        Map<String, String> delivered = new HashMap<>();
+        String issue = trackingService.currentIssue();
+        String openPixelUrl = trackingService.openPixelUrl(issue);
+        // Top articles are the same for every audience with a category, so look them up once per run
+        Map<String, List<News>> topArticles = new HashMap<>();
+        // Audiences with the same articles share one rendered and MIME-encoded newsletter
+        Map<List<Map<String, String>>, NewsletterMimeTemplate> newsletters = new HashMap<>();
+        for (Audience audience : audiences) {
+            log.info("Compiling newsletter for categories {} ({} subscribers)", audience.categories(), audience.members().size());
+            NewsletterMimeTemplate prepared;
             try {
-                List<String> categories = s.getCategories() == null ? Collections.emptyList() : s.getCategories();
-                log.info("Subscriber {} categories: {}", email, categories);
-
-                List<Map<String, String>> articles = categories.stream()
-                        .filter(cat -> cat != null && !cat.isBlank())
-                        .map(cat -> cat.trim().toLowerCase(Locale.ROOT))
-                        .flatMap(cat -> {
-                            log.debug("Fetching top articles for category: {}", cat);
-                            List<News> fetched = newsService.fetchTopArticles(cat, 2);
-                            int fetchedCount = fetched == null ? 0 : fetched.size();
-                            log.info("Fetched {} articles for category: {}", fetchedCount, cat);
-                            return (fetched == null ? Collections.<News>emptyList() : fetched).stream();
-                        })
+                List<News> candidates = audience.categories().stream()
+                        .flatMap(cat -> topArticles.computeIfAbsent(cat, c -> {
+                            List<News> top = newsService.fetchTopArticles(c, 2);
+                            log.info("Fetched {} articles for category: {}", top == null ? 0 : top.size(), c);
+                            return top == null ? Collections.emptyList() : top;
+                        }).stream())
+                        .collect(Collectors.toList());
+                List<Map<String, String>> articles = diversify(candidates).stream()
                         .limit(maxArticlesPerMail)
                         .map(a -> Map.of(
                                 "title", a.getTitle(),
                                 "url", a.getUrl(),
+                                "trackedUrl", trackingService.clickUrl(issue, a.getUrl()),
                                 "summary", a.getDescription()
                         ))
                         .collect(Collectors.toList());
-                log.info("Total articles compiled for {}: {}", email, articles.size());
+                log.info("Total articles compiled for {}: {}", audience.categories(), articles.size());
                 if (articles.isEmpty()) {
-                    log.info("No articles found for {}, skipping email send", email);
+                    log.info("No articles found for {}, skipping email send", audience.categories());
+                    audience.members().forEach(m -> recordFailure(m, now));
                     continue;
                 }
+                prepared = newsletters.get(articles);
+                if (prepared == null) {
+                    prepared = emailService.prepareNewsletter("Your Newsy Daily", articles, openPixelUrl);
+                    newsletters.put(articles, prepared);
+                }
+            } catch (Exception ex) {
+                log.error("Unexpected error compiling newsletter for {}: {}", audience.categories(), ex.getMessage(), ex);
+                audience.members().forEach(m -> recordFailure(m, now));
+                continue;
+            }
 
-                log.info("Sending newsletter to {} with {} articles", email, articles.size());
-                emailService.sendNewsletter(email, "Your Newsy Daily", articles, s.getVerificationToken());
-                log.info("Newsletter successfully sent to {}", email);
+            NewsletterMimeTemplate newsletter = prepared;
+            for (Member member : audience.members()) {
+                String email = member.email();
+                String date = now.atZone(zoneOf(member)).toLocalDate().toString();
+                log.info("Queueing newsletter to {}", email);
+                jobs.add(new DomainSendScheduler.SendJob(email, () -> {
+                    try {
+                        emailService.sendNewsletter(email, newsletter, member.token());
+                    } catch (Exception e) {
+                        recordFailure(member, now);
+                        throw e;
+                    }
+                    failedAttempts.remove(key(member));
+                    if (member.id() != null) {
+                        markDelivered(delivered, member.id(), date);
+                    }
+                }));
+            }
+        }
 
-            } catch (MessagingException mex) {
-                log.error("Failed to send newsletter to {}: {}", email, mex.getMessage(), mex);
-            } catch (Exception ex) {
-                log.error("Unexpected error compiling/sending newsletter for {}: {}", email, ex.getMessage(), ex);
+        // Sends are interleaved across recipient domains and paced per domain
+        try {
+            int sent = sendScheduler.sendAll(jobs);
+            log.info("Daily newsletter sent to {} of {} subscribers", sent, jobs.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Daily newsletter run interrupted");
+        } finally {
+            flushDelivered(delivered, 1);
+        }
+    }
+
+    private void markDelivered(Map<String, String> delivered, String id, String date) {
+        synchronized (delivered) {
+            delivered.put(id, date);
+        }
+        flushDelivered(delivered, markBatch);
+    }
+
+    /**
+     * Save the pending delivered dates once at least minSize are waiting. A failed save keeps them
+     * pending for the next batch or the end of the run, so the send itself still counts.
+     */
+    private void flushDelivered(Map<String, String> delivered, int minSize) {
+        Map<String, String> batch;
+        synchronized (delivered) {
+            if (delivered.isEmpty() || delivered.size() < minSize) {
+                return;
+            }
+            batch = new HashMap<>(delivered);
+            delivered.clear();
+        }
+        try {
+            subscriptionService.markNewsletterSent(batch);
+        } catch (RuntimeException e) {
+            log.warn("Could not save newsletter delivery for {} subscribers, retrying: {}", batch.size(), e.getMessage());
+            synchronized (delivered) {
+                batch.forEach(delivered::putIfAbsent);
             }
         }
     }
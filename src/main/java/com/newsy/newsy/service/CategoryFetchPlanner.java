@@ -0,0 +1,221 @@
+package com.newsy.newsy.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides when each category is fetched next.
+ * Every category keeps a smoothed rate of genuinely new articles per hour; the polling interval
+ * aims for a fixed number of new articles per fetch, so busy categories are polled often and
+ * quiet ones back off. All intervals are stretched together when the projected number of
+ * upstream calls would exceed the daily API budget.
+ */
+@Service
+@Slf4j
+public class CategoryFetchPlanner {
+
+    private static final Duration BUDGET_WINDOW = Duration.ofHours(24);
+    private static final double SMOOTHING = 0.4;
+
+    private final NewsService newsService;
+
+    @Value("${news.fetch.min-interval:PT30M}")
+    private Duration minInterval;
+
+    @Value("${news.fetch.max-interval:PT24H}")
+    private Duration maxInterval;
+
+    @Value("${news.fetch.initial-interval:PT6H}")
+    private Duration initialInterval;
+
+    @Value("${news.fetch.target-new-per-fetch:3}")
+    private double targetNewPerFetch;
+
+    @Value("${news.fetch.daily-budget:100}")
+    private int dailyBudget;
+
+    private final Map<String, CategoryState> states = new LinkedHashMap<>();
+    private final Deque<Instant> requestLog = new ArrayDeque<>();
+    private double budgetStretch = 1.0;
+
+    public CategoryFetchPlanner(NewsService newsService) {
+        this.newsService = newsService;
+    }
+
+    /**
+     * Categories whose interval has elapsed, most overdue first, limited by the remaining budget.
+     * Returned categories are counted against the budget immediately.
+     */
+    public synchronized List<String> dueCategories(Instant now) {
+        List<String> due = state(now).entrySet().stream()
+                .filter(e -> !e.getValue().nextFetchAt.isAfter(now))
+                .sorted(Comparator.comparing(e -> e.getValue().nextFetchAt))
+                .map(Map.Entry::getKey)
+                .limit(remainingBudget(now))
+                .toList();
+
+        for (String category : due) {
+            requestLog.addLast(now);
+            // Guard against re-dispatching while the fetch is queued or running
+            states.get(category).nextFetchAt = now.plus(minInterval);
+        }
+        return due;
+    }
+
+    /**
+     * Return the budget of dispatched categories that did not cost an upstream call, e.g. because
+     * they joined a fetch that was already running or queued
+     */
+    public synchronized void refund(List<String> categories) {
+        for (int i = 0; i < categories.size() && !requestLog.isEmpty(); i++) {
+            requestLog.removeLast();
+        }
+    }
+
+    /**
+     * Feed the outcome of a fetch back into the intervals.
+     * Categories missing from newArticles failed: they are counted as errors, keep their interval
+     * and are retried after the minimum interval, doubling per further consecutive failure up to
+     * the maximum interval, so a category that keeps failing does not drain the budget.
+     */
+    public synchronized void recordResults(List<String> categories, Map<String, Integer> newArticles) {
+        Instant now = Instant.now();
+        Map<String, CategoryState> all = state(now);
+        for (String category : categories) {
+            CategoryState s = all.get(category);
+            if (s == null) {
+                continue;
+            }
+            Integer fresh = newArticles.get(category);
+            if (fresh == null) {
+                s.consecutiveFailures++;
+                s.nextFetchAt = now.plus(retryDelay(s.consecutiveFailures));
+                continue;
+            }
+            s.consecutiveFailures = 0;
+
+            double hours = Math.max(Duration.between(s.lastFetchAt, now).toMinutes(), minInterval.toMinutes()) / 60.0;
+            double observed = fresh / hours;
+            s.newPerHour = s.newPerHour < 0 ? observed : SMOOTHING * observed + (1 - SMOOTHING) * s.newPerHour;
+            s.lastNewArticles = fresh;
+            s.lastFetchAt = now;
+
+            Duration interval = s.newPerHour > 0
+                    ? Duration.ofMinutes(Math.round(targetNewPerFetch / s.newPerHour * 60))
+                    : s.interval.multipliedBy(2);
+            s.interval = clamp(interval);
+        }
+
+        updateBudgetStretch();
+        for (String category : categories) {
+            CategoryState s = all.get(category);
+            if (s != null && newArticles.containsKey(category)) {
+                s.nextFetchAt = s.lastFetchAt.plus(effectiveInterval(s));
+            }
+        }
+    }
+
+    /**
+     * Current plan per category plus budget usage, for the schedule endpoint
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Instant now = Instant.now();
+        Map<String, Object> categories = new LinkedHashMap<>();
+        state(now).forEach((category, s) -> categories.put(category, Map.of(
+                "intervalMinutes", effectiveInterval(s).toMinutes(),
+                "lastFetchAt", s.lastFetchAt,
+                "nextFetchAt", s.nextFetchAt,
+                "newArticlesPerHour", Math.max(s.newPerHour, 0),
+                "lastNewArticles", s.lastNewArticles,
+                "consecutiveFailures", s.consecutiveFailures
+        )));
+        return Map.of(
+                "dailyBudget", dailyBudget,
+                "usedLast24h", dailyBudget - remainingBudget(now),
+                "budgetStretch", budgetStretch,
+                "categories", categories
+        );
+    }
+
+    /**
+     * Lazily sync the state map with the configured categories. New categories resume from the
+     * last stored fetch so a restart does not fetch everything again.
+     */
+    private Map<String, CategoryState> state(Instant now) {
+        List<String> configured = newsService.getCategories();
+        states.keySet().retainAll(configured);
+        for (String category : configured) {
+            states.computeIfAbsent(category, c -> {
+                Instant last = newsService.getLastFetchedAt(c)
+                        .map(t -> t.atZone(ZoneId.systemDefault()).toInstant())
+                        .orElse(now.minus(initialInterval));
+                CategoryState s = new CategoryState(initialInterval, last);
+                s.nextFetchAt = last.plus(initialInterval);
+                return s;
+            });
+        }
+        return states;
+    }
+
+    private int remainingBudget(Instant now) {
+        Instant cutoff = now.minus(BUDGET_WINDOW);
+        while (!requestLog.isEmpty() && requestLog.peekFirst().isBefore(cutoff)) {
+            requestLog.removeFirst();
+        }
+        return Math.max(0, dailyBudget - requestLog.size());
+    }
+
+    /**
+     * Scale all intervals so the projected calls per day fit into the budget
+     */
+    private void updateBudgetStretch() {
+        double projected = states.values().stream()
+                .mapToDouble(s -> (double) BUDGET_WINDOW.toMinutes() / Math.max(1, s.interval.toMinutes()))
+                .sum();
+        budgetStretch = projected > dailyBudget ? projected / dailyBudget : 1.0;
+        if (budgetStretch > 1.0) {
+            log.info("Projected {} fetches/day exceeds budget of {}, stretching intervals by {}",
+                    Math.round(projected), dailyBudget, String.format("%.2f", budgetStretch));
+        }
+    }
+
+    private Duration effectiveInterval(CategoryState s) {
+        return Duration.ofMinutes(Math.round(s.interval.toMinutes() * budgetStretch));
+    }
+
+    private Duration retryDelay(int consecutiveFailures) {
+        return clamp(minInterval.multipliedBy(1L << Math.min(consecutiveFailures - 1, 20)));
+    }
+
+    private Duration clamp(Duration interval) {
+        if (interval.compareTo(minInterval) < 0) {
+            return minInterval;
+        }
+        return interval.compareTo(maxInterval) > 0 ? maxInterval : interval;
+    }
+
+    private static class CategoryState {
+        private Duration interval;
+        private Instant lastFetchAt;
+        private Instant nextFetchAt;
+        private double newPerHour = -1;
+        private int lastNewArticles;
+        private int consecutiveFailures;
+
+        CategoryState(Duration interval, Instant lastFetchAt) {
+            this.interval = interval;
+            this.lastFetchAt = lastFetchAt;
+        }
+    }
+}
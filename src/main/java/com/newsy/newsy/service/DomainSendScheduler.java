@@ -0,0 +1,235 @@
+package com.newsy.newsy.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paces bulk mail by recipient domain.
+ * Queued sends are grouped per domain and dispatched round-robin across domains, so a long run of
+ * gmail.com addresses is interleaved with everything else. Each domain gets its own concurrency
+ * limit and a minimum spacing between sends; the total number of sends in flight is capped by the
+ * worker count. Only domains with queued sends are scanned; a lane idle for LANE_RETENTION is dropped.
+ */
+@Service
+@Slf4j
+public class DomainSendScheduler {
+
+    @FunctionalInterface
+    public interface MailTask {
+        void send() throws Exception;
+    }
+
+    public record SendJob(String recipient, MailTask task) {
+    }
+
+    // Longer than the widest per-domain spacing (one minute), so dropping a lane never shortens it
+    static final Duration LANE_RETENTION = Duration.ofMinutes(10);
+
+    private final int workers;
+    private final int perDomainConcurrency;
+    private final long perDomainSpacingNanos;
+
+    private final ExecutorService executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, DomainLane> lanes = new LinkedHashMap<>();
+    // Domains with queued sends, in round-robin order
+    private final List<DomainLane> ring = new ArrayList<>();
+    private int cursor;
+    private int inFlight;
+
+    public DomainSendScheduler(@Value("${newsletter.send.workers:4}") int workers,
+                               @Value("${newsletter.send.per-domain-concurrency:2}") int perDomainConcurrency,
+                               @Value("${newsletter.send.per-domain-rate-per-minute:60}") int perDomainRatePerMinute) {
+        this.workers = Math.max(1, workers);
+        this.perDomainConcurrency = Math.max(1, perDomainConcurrency);
+        this.perDomainSpacingNanos = Duration.ofMinutes(1).toNanos() / Math.max(1, perDomainRatePerMinute);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread t = new Thread(r, "newsletter-send-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Send all jobs under the per-domain limits and wait until every one has been attempted.
+     * Returns the number of successful sends.
+     */
+    public int sendAll(List<SendJob> jobs) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(jobs.size());
+        AtomicInteger sent = new AtomicInteger();
+
+        int domains;
+        lock.lock();
+        try {
+            pruneIdleLanes(System.nanoTime());
+            for (SendJob job : jobs) {
+                DomainLane lane = lanes.computeIfAbsent(domainOf(job.recipient()), d -> new DomainLane());
+                if (lane.queue.isEmpty()) {
+                    ring.add(lane);
+                }
+                lane.queue.addLast(new Pending(job, done, sent));
+            }
+            domains = ring.size();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("Queued {} sends across {} domains", jobs.size(), domains);
+        dispatchUntil(done);
+        return sent.get();
+    }
+
+    /**
+     * Per-domain counters for domains with sends in the last LANE_RETENTION
+     */
+    public Map<String, Map<String, Object>> stats() {
+        lock.lock();
+        try {
+            pruneIdleLanes(System.nanoTime());
+            Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+            lanes.forEach((domain, lane) -> result.put(domain, Map.of(
+                    "queued", lane.queue.size(),
+                    "inFlight", lane.inFlight,
+                    "sent", lane.sent,
+                    "failed", lane.failed,
+                    "avgSendMillis", lane.sent + lane.failed == 0 ? 0 : lane.sendNanos / 1_000_000 / (lane.sent + lane.failed)
+            )));
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dispatch loop: hand the next eligible send to a worker, or sleep until a domain becomes
+     * eligible again (spacing elapsed or a send finished)
+     */
+    private void dispatchUntil(CountDownLatch done) throws InterruptedException {
+        while (done.getCount() > 0) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                long waitNanos = TimeUnit.MILLISECONDS.toNanos(100);
+                Pending next = null;
+                DomainLane nextLane = null;
+
+                if (inFlight < workers) {
+                    for (int i = 0; i < ring.size() && next == null; i++) {
+                        int index = (cursor + i) % ring.size();
+                        DomainLane lane = ring.get(index);
+                        if (lane.inFlight >= perDomainConcurrency) {
+                            continue;
+                        }
+                        if (lane.nextAllowedAt - now > 0) {
+                            waitNanos = Math.min(waitNanos, lane.nextAllowedAt - now);
+                            continue;
+                        }
+                        next = lane.queue.pollFirst();
+                        nextLane = lane;
+                        if (lane.queue.isEmpty()) {
+                            ring.remove(index);
+                            cursor = index;
+                        } else {
+                            cursor = index + 1;
+                        }
+                    }
+                }
+
+                if (next == null) {
+                    changed.awaitNanos(waitNanos);
+                    continue;
+                }
+
+                nextLane.inFlight++;
+                nextLane.nextAllowedAt = now + perDomainSpacingNanos;
+                inFlight++;
+                Pending job = next;
+                DomainLane lane = nextLane;
+                executor.execute(() -> run(job, lane));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void run(Pending pending, DomainLane lane) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            pending.job.task().send();
+            ok = true;
+            pending.sent.incrementAndGet();
+        } catch (Exception e) {
+            log.error("Failed to send to {}: {}", pending.job.recipient(), e.getMessage(), e);
+        } finally {
+            lock.lock();
+            try {
+                lane.inFlight--;
+                lane.lastActiveAt = System.nanoTime();
+                lane.sendNanos += lane.lastActiveAt - start;
+                if (ok) {
+                    lane.sent++;
+                } else {
+                    lane.failed++;
+                }
+                inFlight--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            pending.done.countDown();
+        }
+    }
+
+    /**
+     * Drop lanes with nothing queued or in flight and no send for LANE_RETENTION. Caller holds the lock.
+     */
+    private void pruneIdleLanes(long now) {
+        lanes.values().removeIf(lane -> lane.queue.isEmpty() && lane.inFlight == 0
+                && now - lane.lastActiveAt > LANE_RETENTION.toNanos());
+    }
+
+    static String domainOf(String email) {
+        int at = email == null ? -1 : email.lastIndexOf('@');
+        return at < 0 || at == email.length() - 1 ? "unknown" : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Pending(SendJob job, CountDownLatch done, AtomicInteger sent) {
+    }
+
+    private static class DomainLane {
+        private final Deque<Pending> queue = new ArrayDeque<>();
+        private int inFlight;
+        private long nextAllowedAt = System.nanoTime();
+        private long lastActiveAt = System.nanoTime();
+        private long sent;
+        private long failed;
+        private long sendNanos;
+    }
+}
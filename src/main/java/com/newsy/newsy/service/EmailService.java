@@ -1,11 +1,14 @@
 package com.newsy.newsy.service;
 
-import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
@@ -13,6 +16,7 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Locale;
+import java.util.Properties;
 
 @Slf4j
 @Service
@@ -20,6 +24,7 @@ import java.util.Locale;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final MailDispatcher mailDispatcher;
     private final SpringTemplateEngine thymeleaf;
 
     @Value("${app.base-url:http://localhost:8080}")
@@ -31,7 +36,20 @@ public class EmailService {
     @Value("${mail.from.name:${MAIL_FROM_NAME:Newsy}}")
     private String mailFromName;
 
+    // Bulk mail is written from a pre-encoded template instead of building a MIME tree per recipient
+    @Value("${mail.bulk.pre-encoded:true}")
+    private boolean preEncoded;
+
+    private volatile Session session;
+
     public void sendVerificationEmail(String to, String token) throws MessagingException {
+        sendVerificationEmail(to, token, MailDispatcher.Lane.TRANSACTIONAL);
+    }
+
+    /**
+     * Verification mail on the given lane; bulk imports use BULK so sign-ups keep their reserved connections
+     */
+    public void sendVerificationEmail(String to, String token, MailDispatcher.Lane lane) throws MessagingException {
         String verifyUrl = appBaseUrl + "/api/subscriptions/verify?token=" + token;
 
         Context ctx = new Context(Locale.ENGLISH);
@@ -39,38 +57,58 @@ public class EmailService {
         ctx.setVariable("email", to);
 
         String html = thymeleaf.process("verification-email", ctx);
-        sendHtmlEmail(to, "Confirm your Newsy subscription", html);
+        sendHtmlEmail(to, "Confirm your Newsy subscription", html, lane);
     }
 
-    public void sendNewsletter(String to, String subject, Object articles, String token) throws MessagingException {
-        log.info("Sending newsletter email to {}", to);
+    /**
+     * Render and encode a newsletter once; it can then be sent to every subscriber who gets
+     * the same articles, with only the recipient and unsubscribe token differing
+     */
+    public NewsletterMimeTemplate prepareNewsletter(String subject, Object articles, String openPixelUrl) throws MessagingException {
         Context ctx = new Context(Locale.ENGLISH);
         ctx.setVariable("title", subject);
         ctx.setVariable("articles", articles);
-        String unsubscribeUrl = appBaseUrl + "/api/subscriptions/unsubscribe?token=" + token;
-        ctx.setVariable("unsubscribeUrl", unsubscribeUrl);
+        ctx.setVariable("openPixelUrl", openPixelUrl);
+        ctx.setVariable("unsubscribeUrl", appBaseUrl + "/api/subscriptions/unsubscribe?token=" + NewsletterMimeTemplate.TOKEN_PLACEHOLDER);
         String html = thymeleaf.process("newsletter", ctx);
-        sendHtmlEmail(to, subject, html);
+        return new NewsletterMimeTemplate(html, subject, fromAddress());
     }
 
-    private void sendHtmlEmail(String to, String subject, String html) throws MessagingException {
+    public void sendNewsletter(String to, NewsletterMimeTemplate newsletter, String token) throws MessagingException {
+        log.info("Sending newsletter email to {}", to);
+        if (preEncoded) {
+            mailDispatcher.send(MailDispatcher.Lane.BULK, newsletter.newMessage(session(), to, token));
+        } else {
+            sendHtmlEmail(to, newsletter.subject(), newsletter.html(token), MailDispatcher.Lane.BULK);
+        }
+    }
+
+    private void sendHtmlEmail(String to, String subject, String html, MailDispatcher.Lane lane) throws MessagingException {
         MimeMessage msg = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(msg, true, "UTF-8");
         helper.setTo(to);
         helper.setSubject(subject);
 
+        helper.setFrom(fromAddress());
+        helper.setText(html, true);
+        mailDispatcher.send(lane, msg);
+    }
+
+    private InternetAddress fromAddress() throws MessagingException {
         try {
             if (mailFromName != null && !mailFromName.isBlank()) {
-                helper.setFrom(mailFrom, mailFromName);
-            } else {
-                helper.setFrom(mailFrom);
+                return new InternetAddress(mailFrom, mailFromName, "UTF-8");
             }
         } catch (UnsupportedEncodingException e) {
             // fallback to email-only from
-            helper.setFrom(mailFrom);
         }
+        return new InternetAddress(mailFrom);
+    }
 
-        helper.setText(html, true);
-        mailSender.send(msg);
+    private Session session() {
+        if (session == null) {
+            session = mailSender instanceof JavaMailSenderImpl impl ? impl.getSession() : Session.getInstance(new Properties());
+        }
+        return session;
     }
 }
@@ -0,0 +1,68 @@
+package com.newsy.newsy.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tracks one pass of the ingest pipeline over a set of categories.
+ * Every category is completed exactly once, by whichever stage finishes with it
+ * (persisted, filtered down to nothing, or failed).
+ */
+@Slf4j
+public class IngestRun {
+
+    private final CountDownLatch remaining;
+    private final Consumer<String> onCategoryDone;
+    private final Map<String, Integer> newArticles = new ConcurrentHashMap<>();
+    private volatile boolean cancelled;
+
+    public IngestRun(List<String> categories, Consumer<String> onCategoryDone) {
+        this.remaining = new CountDownLatch(categories.size());
+        this.onCategoryDone = onCategoryDone;
+    }
+
+    /**
+     * Record how many articles of a category were not seen in any earlier fetch
+     */
+    public void recordNewArticles(String category, int count) {
+        if (!cancelled) {
+            newArticles.put(category, count);
+        }
+    }
+
+    /**
+     * New-article counts per category; categories that failed have no entry
+     */
+    public Map<String, Integer> getNewArticles() {
+        return Map.copyOf(newArticles);
+    }
+
+    public void complete(String category) {
+        try {
+            onCategoryDone.accept(category);
+        } finally {
+            remaining.countDown();
+        }
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return remaining.await(timeout, unit);
+    }
+
+    /**
+     * Give up on the run: stages drop its queued items and it no longer records results
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,122 @@
+package com.newsy.newsy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * One stage of the ingest pipeline: a bounded input queue drained by a fixed number of workers.
+ * Submitting blocks while the queue is full, so a slow stage pushes back on the one before it
+ * instead of letting work pile up in memory. Items of a cancelled run are dropped unprocessed.
+ */
+@Slf4j
+public class IngestStage<T> {
+
+    @FunctionalInterface
+    public interface Handler<T> {
+        void handle(List<Item<T>> batch) throws Exception;
+    }
+
+    /**
+     * Unit of work flowing through the pipeline, tied to the run and category it belongs to
+     */
+    public record Item<T>(IngestRun run, String category, T payload) {
+        public <R> Item<R> withPayload(R next) {
+            return new Item<>(run, category, next);
+        }
+    }
+
+    private final String name;
+    private final int workers;
+    private final int batchSize;
+    private final Handler<T> handler;
+    private final BlockingQueue<Item<T>> queue;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final Counter processed;
+    private final Counter failed;
+    private final Timer timer;
+
+    public IngestStage(String name, int workers, int capacity, int batchSize, Handler<T> handler, MeterRegistry registry) {
+        this.name = name;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+
+        this.processed = registry.counter("newsy.ingest.items", "stage", name, "outcome", "processed");
+        this.failed = registry.counter("newsy.ingest.items", "stage", name, "outcome", "failed");
+        this.timer = registry.timer("newsy.ingest.stage.duration", "stage", name);
+        registry.gauge("newsy.ingest.queue.depth", Tags.of("stage", name), queue, BlockingQueue::size);
+    }
+
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            Thread t = new Thread(this::work, "ingest-" + name + "-" + i);
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+        log.info("Ingest stage '{}' started with {} worker(s), batch size {}", name, workers, batchSize);
+    }
+
+    public void stop() {
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    /**
+     * Enqueue an item, blocking while the stage is saturated
+     */
+    public void submit(Item<T> item) throws InterruptedException {
+        queue.put(item);
+    }
+
+    private void work() {
+        List<Item<T>> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batch.removeIf(item -> item.run().isCancelled());
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            try {
+                timer.record(() -> {
+                    try {
+                        handler.handle(batch);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                processed.increment(batch.size());
+            } catch (Exception e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                failed.increment(batch.size());
+                for (Item<T> item : batch) {
+                    log.error("Ingest stage '{}' failed for category {}: {}", name, item.category(), e.getMessage(), e);
+                    item.run().complete(item.category());
+                }
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.newsy.newsy.service;
+
+import java.util.Map;
+
+/**
+ * An ingest run did not finish in time. Carries the new-article counts of the categories that
+ * finished; the others count as failed.
+ */
+public class IngestTimeoutException extends RuntimeException {
+
+    private final Map<String, Integer> newArticles;
+
+    public IngestTimeoutException(String message, Map<String, Integer> newArticles) {
+        super(message);
+        this.newArticles = Map.copyOf(newArticles);
+    }
+
+    public Map<String, Integer> getNewArticles() {
+        return newArticles;
+    }
+}
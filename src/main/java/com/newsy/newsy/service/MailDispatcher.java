@@ -0,0 +1,204 @@
+package com.newsy.newsy.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prioritised hand-off of outgoing mail to the SMTP relay.
+ * A fixed number of sender threads (one SMTP connection each) serve two lanes. Bulk mail may never
+ * occupy the connections reserved for transactional mail, so a verification email always finds a
+ * free connection even while a newsletter run saturates the rest. When both lanes have mail
+ * waiting, the shared connections are split by the configured weights (smooth weighted round robin).
+ * Senders stay platform threads with virtual threads enabled: the SMTP transport writes inside
+ * synchronized methods, which would pin a virtual thread's carrier for the whole send. Request
+ * threads only wait on a future here, which does not pin, and give up after mail.dispatch.send-timeout.
+ */
+@Service
+@Slf4j
+public class MailDispatcher {
+
+    public enum Lane {
+        TRANSACTIONAL, BULK
+    }
+
+    private final JavaMailSender mailSender;
+    private final int connections;
+    private final int reservedTransactional;
+    private final Duration sendTimeout;
+    private final Map<Lane, Integer> weights = new EnumMap<>(Lane.class);
+    private final Map<Lane, Integer> credits = new EnumMap<>(Lane.class);
+    private final Map<Lane, Deque<Pending>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, Timer> waitTimers = new EnumMap<>(Lane.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final List<Thread> senders = new ArrayList<>();
+    private int activeBulk;
+
+    public MailDispatcher(JavaMailSender mailSender, MeterRegistry meterRegistry,
+                          @Value("${mail.dispatch.connections:4}") int connections,
+                          @Value("${mail.dispatch.reserved-transactional:1}") int reservedTransactional,
+                          @Value("${mail.dispatch.weight.transactional:4}") int transactionalWeight,
+                          @Value("${mail.dispatch.weight.bulk:1}") int bulkWeight,
+                          @Value("${mail.dispatch.send-timeout:PT2M}") Duration sendTimeout) {
+        this.mailSender = mailSender;
+        this.sendTimeout = sendTimeout;
+        this.connections = Math.max(2, connections);
+        this.reservedTransactional = Math.min(Math.max(1, reservedTransactional), this.connections - 1);
+        weights.put(Lane.TRANSACTIONAL, Math.max(1, transactionalWeight));
+        weights.put(Lane.BULK, Math.max(1, bulkWeight));
+        for (Lane lane : Lane.values()) {
+            credits.put(lane, 0);
+            queues.put(lane, new ArrayDeque<>());
+            waitTimers.put(lane, meterRegistry.timer("newsy.mail.dispatch.wait", "lane", lane.name().toLowerCase()));
+        }
+
+        for (int i = 0; i < this.connections; i++) {
+            Thread t = new Thread(this::work, "mail-sender-" + i);
+            t.setDaemon(true);
+            t.start();
+            senders.add(t);
+        }
+    }
+
+    /**
+     * Queue a message on a lane and wait until it has been handed to the relay.
+     * On timeout a message still queued is withdrawn; one already with the relay may still go out.
+     */
+    public void send(Lane lane, MimeMessage message) throws MessagingException {
+        Pending pending = new Pending(lane, message, System.nanoTime(), new CompletableFuture<>());
+        lock.lock();
+        try {
+            queues.get(lane).addLast(pending);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            pending.result.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            withdraw(pending);
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for mail dispatch", e);
+        } catch (TimeoutException e) {
+            withdraw(pending);
+            throw new MessagingException("Mail dispatch timed out after " + sendTimeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Exception cause) {
+                throw new MessagingException("Mail dispatch failed", cause);
+            }
+            throw new MessagingException("Mail dispatch failed", e);
+        }
+    }
+
+    private void withdraw(Pending pending) {
+        lock.lock();
+        try {
+            queues.get(pending.lane).remove(pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Pending next;
+            lock.lock();
+            try {
+                while ((next = pollNext()) == null) {
+                    available.await();
+                }
+                if (next.lane == Lane.BULK) {
+                    activeBulk++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            waitTimers.get(next.lane).record(System.nanoTime() - next.queuedAt, TimeUnit.NANOSECONDS);
+            try {
+                mailSender.send(next.message);
+                next.result.complete(null);
+            } catch (VirtualMachineError e) {
+                next.result.completeExceptionally(e);
+                throw e;
+            } catch (Throwable e) {
+                // Errors from the mail stack (e.g. a LinkageError) fail this send but keep the sender running
+                next.result.completeExceptionally(e);
+            } finally {
+                if (next.lane == Lane.BULK) {
+                    lock.lock();
+                    try {
+                        activeBulk--;
+                        available.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Pick the next message under the reservation and weights; must hold the lock
+     */
+    private Pending pollNext() {
+        boolean transactionalWaiting = !queues.get(Lane.TRANSACTIONAL).isEmpty();
+        boolean bulkAllowed = !queues.get(Lane.BULK).isEmpty() && activeBulk < connections - reservedTransactional;
+
+        if (transactionalWaiting && bulkAllowed) {
+            int total = 0;
+            Lane best = null;
+            for (Lane lane : Lane.values()) {
+                int credit = credits.get(lane) + weights.get(lane);
+                credits.put(lane, credit);
+                total += weights.get(lane);
+                if (best == null || credit > credits.get(best)) {
+                    best = lane;
+                }
+            }
+            credits.put(best, credits.get(best) - total);
+            return queues.get(best).pollFirst();
+        }
+        if (transactionalWaiting) {
+            return queues.get(Lane.TRANSACTIONAL).pollFirst();
+        }
+        return bulkAllowed ? queues.get(Lane.BULK).pollFirst() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.forEach(Thread::interrupt);
+    }
+
+    private record Pending(Lane lane, MimeMessage message, long queuedAt, CompletableFuture<Void> result) {
+    }
+}
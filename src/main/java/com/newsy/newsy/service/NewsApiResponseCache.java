@@ -0,0 +1,233 @@
+package com.newsy.newsy.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Disk cache and recorder for NewsData.io responses, installed as a RestTemplate interceptor.
+ * Requests to newsdata.api.url are keyed by their normalised query (parameters sorted, apikey
+ * removed), so recordings can be shared and committed without leaking the key.
+ *
+ * Modes (newsdata.cache.mode):
+ * - off (default): every request goes to the network
+ * - record: a recording younger than newsdata.cache.freshness is served without network I/O;
+ *   otherwise the request goes out and a successful response is recorded
+ * - replay: only recordings are served, regardless of age; a missing recording fails the request
+ *
+ * File layout: a text header ("NEWSY-RECORDING 1", key, status, content type, recorded-at,
+ * each on its own line, then a blank line) followed by the raw response body.
+ */
+@Component
+@Slf4j
+public class NewsApiResponseCache implements ClientHttpRequestInterceptor {
+
+    private static final String MAGIC = "NEWSY-RECORDING 1";
+
+    public enum Mode {
+        OFF, RECORD, REPLAY
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final Path dir;
+    private final Duration freshness;
+    private final URI apiUri;
+
+    public NewsApiResponseCache(MeterRegistry meterRegistry,
+                                @Value("${newsdata.cache.mode:off}") String mode,
+                                @Value("${newsdata.cache.dir:data/upstream-cache}") Path dir,
+                                @Value("${newsdata.cache.freshness:PT10M}") Duration freshness,
+                                @Value("${newsdata.api.url}") String apiUrl) {
+        this.meterRegistry = meterRegistry;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.dir = dir;
+        this.freshness = freshness;
+        this.apiUri = URI.create(apiUrl);
+        if (this.mode != Mode.OFF) {
+            log.info("NewsData.io responses: {} mode, recordings in {}", this.mode.name().toLowerCase(), dir.toAbsolutePath());
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (mode == Mode.OFF || !"GET".equals(request.getMethod().name()) || !isApiRequest(request.getURI())) {
+            return execution.execute(request, body);
+        }
+
+        String key = key(request.getURI());
+        Path file = dir.resolve(hash(key) + ".rec");
+        Recording recording = read(file, key);
+
+        if (recording != null && (mode == Mode.REPLAY || recording.recordedAt.plus(freshness).isAfter(Instant.now()))) {
+            count("hit");
+            log.debug("Serving recorded response for {} (recorded at {})", key, recording.recordedAt);
+            return recording.toResponse();
+        }
+        if (mode == Mode.REPLAY) {
+            count("replay-miss");
+            throw new IOException("No recorded NewsData.io response for " + key);
+        }
+
+        count(recording == null ? "miss" : "stale");
+        try (ClientHttpResponse response = execution.execute(request, body)) {
+            Recording fresh = new Recording(response.getStatusCode().value(),
+                    response.getHeaders().getContentType(), Instant.now(), response.getBody().readAllBytes());
+            if (response.getStatusCode().is2xxSuccessful()) {
+                write(file, key, fresh);
+            }
+            return fresh.toResponse();
+        }
+    }
+
+    /**
+     * Cache key: request URL without the API key, query parameters in sorted order
+     */
+    static String key(URI uri) {
+        UriComponents components = UriComponentsBuilder.fromUri(uri).build();
+        TreeMap<String, String> params = new TreeMap<>();
+        MultiValueMap<String, String> query = components.getQueryParams();
+        query.forEach((name, values) -> {
+            if (!name.equalsIgnoreCase("apikey")) {
+                params.put(name, String.join(",", values.stream().map(v -> v == null ? "" : v).sorted().toList()));
+            }
+        });
+        StringBuilder key = new StringBuilder(components.getHost() == null ? "" : components.getHost().toLowerCase(Locale.ROOT))
+                .append(components.getPath() == null ? "" : components.getPath());
+        char separator = '?';
+        for (var param : params.entrySet()) {
+            key.append(separator).append(param.getKey()).append('=').append(param.getValue());
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    private boolean isApiRequest(URI uri) {
+        return apiUri.getHost() != null && apiUri.getHost().equalsIgnoreCase(uri.getHost())
+                && String.valueOf(uri.getPath()).equals(String.valueOf(apiUri.getPath()));
+    }
+
+    private Recording read(Path file, String key) {
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            if (!MAGIC.equals(readLine(in)) || !key.equals(readLine(in))) {
+                return null;
+            }
+            int status = Integer.parseInt(readLine(in));
+            String contentType = readLine(in);
+            Instant recordedAt = Instant.parse(readLine(in));
+            readLine(in);
+            return new Recording(status, contentType.isEmpty() ? null : MediaType.parseMediaType(contentType),
+                    recordedAt, in.readAllBytes());
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable recording {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(Path file, String key, Recording recording) {
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "recording", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                String header = MAGIC + "\n" + key + "\n" + recording.status + "\n"
+                        + (recording.contentType == null ? "" : recording.contentType) + "\n"
+                        + recording.recordedAt + "\n\n";
+                out.write(header.getBytes(StandardCharsets.UTF_8));
+                out.write(recording.body);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not record NewsData.io response to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.append((char) b);
+        }
+        return new String(line.toString().getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("newsy.upstream.cache", "outcome", outcome).increment();
+    }
+
+    private record Recording(int status, MediaType contentType, Instant recordedAt, byte[] body) {
+
+        ClientHttpResponse toResponse() {
+            return new ClientHttpResponse() {
+                @Override
+                public HttpStatusCode getStatusCode() {
+                    return HttpStatusCode.valueOf(status);
+                }
+
+                @Override
+                public String getStatusText() {
+                    return "";
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    HttpHeaders headers = new HttpHeaders();
+                    if (contentType != null) {
+                        headers.setContentType(contentType);
+                    }
+                    headers.setContentLength(body.length);
+                    return headers;
+                }
+
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(body);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
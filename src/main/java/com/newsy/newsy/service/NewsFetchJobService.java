@@ -0,0 +1,166 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.dto.FetchJobStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-flight runner for news fetches.
+ * Manual and scheduled triggers that arrive while a fetch is in flight are coalesced
+ * into that run, so there is never more than one fetch spending API quota at a time.
+ * Categories the running job does not cover are merged into a single queued follow-up job.
+ */
+@Service
+@Slf4j
+public class NewsFetchJobService {
+
+    private static final int MAX_TRACKED_JOBS = 20;
+
+    private final NewsService newsService;
+    private final CategoryFetchPlanner planner;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "news-fetch-job");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<String, FetchJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FetchJob> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    };
+
+    private FetchJob current;
+    private FetchJob pending;
+
+    public NewsFetchJobService(NewsService newsService, CategoryFetchPlanner planner) {
+        this.newsService = newsService;
+        this.planner = planner;
+    }
+
+    /**
+     * Fetch all configured categories, or join the fetch already running
+     */
+    public TriggerResult trigger(String trigger) {
+        return trigger(trigger, newsService.getCategories());
+    }
+
+    /**
+     * Fetch the given categories. Joins the running job if it covers them all,
+     * otherwise merges them into the queued follow-up job.
+     */
+    public synchronized TriggerResult trigger(String trigger, List<String> categories) {
+        if (current != null && "running".equals(current.state)) {
+            if (current.categories.containsAll(categories)) {
+                log.info("Fetch triggered by {} coalesced into running job {}", trigger, current.id);
+                return new TriggerResult(current.toStatus(), true, List.copyOf(categories));
+            }
+            if (pending == null) {
+                pending = new FetchJob(UUID.randomUUID().toString(), trigger, "queued");
+                jobs.put(pending.id, pending);
+            }
+            List<String> covered = categories.stream()
+                    .filter(c -> current.categories.contains(c) || pending.categories.contains(c))
+                    .toList();
+            boolean merged = !pending.categories.addAll(categories);
+            log.info("Fetch of {} triggered by {} queued as job {}", categories, trigger, pending.id);
+            return new TriggerResult(pending.toStatus(), merged, covered);
+        }
+
+        FetchJob job = new FetchJob(UUID.randomUUID().toString(), trigger, "running");
+        job.categories.addAll(categories);
+        start(job);
+        return new TriggerResult(job.toStatus(), false, List.of());
+    }
+
+    public synchronized Optional<FetchJobStatus> getStatus(String jobId) {
+        FetchJob job = jobs.get(jobId);
+        return job == null ? Optional.empty() : Optional.of(job.toStatus());
+    }
+
+    private void start(FetchJob job) {
+        job.state = "running";
+        job.startedAt = Instant.now();
+        current = job;
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+        log.info("Fetch job {} started by {} for {}", job.id, job.trigger, job.categories);
+    }
+
+    private void run(FetchJob job) {
+        List<String> categories = List.copyOf(job.categories);
+        try {
+            Map<String, Integer> newArticles = newsService.fetchAndStoreNews(categories,
+                    category -> job.categoriesDone.incrementAndGet());
+            planner.recordResults(categories, newArticles);
+            finish(job, "completed", null);
+        } catch (IngestTimeoutException e) {
+            planner.recordResults(categories, e.getNewArticles());
+            finish(job, "timed_out", e.getMessage());
+        } catch (Exception e) {
+            log.error("Fetch job {} failed: {}", job.id, e.getMessage(), e);
+            finish(job, "failed", e.getMessage());
+        }
+    }
+
+    private synchronized void finish(FetchJob job, String state, String error) {
+        job.finishedAt = Instant.now();
+        job.error = error;
+        job.state = state;
+        log.info("Fetch job {} {} ({}/{} categories)", job.id, state, job.categoriesDone.get(), job.categories.size());
+
+        if (pending != null) {
+            FetchJob next = pending;
+            pending = null;
+            start(next);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * alreadyCovered: requested categories the running or queued job fetches anyway, so this
+     * trigger costs no extra upstream call for them
+     */
+    public record TriggerResult(FetchJobStatus job, boolean coalesced, List<String> alreadyCovered) {
+    }
+
+    private static class FetchJob {
+        private final String id;
+        private final String trigger;
+        private final Set<String> categories = new LinkedHashSet<>();
+        private final AtomicInteger categoriesDone = new AtomicInteger();
+        private volatile String state;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        FetchJob(String id, String trigger, String state) {
+            this.id = id;
+            this.trigger = trigger;
+            this.state = state;
+        }
+
+        FetchJobStatus toStatus() {
+            return new FetchJobStatus(id, state, trigger, List.copyOf(categories), categoriesDone.get(),
+                    categories.size(), startedAt, finishedAt, error);
+        }
+    }
+}
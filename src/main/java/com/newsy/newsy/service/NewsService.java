@@ -1,8 +1,13 @@
 package com.newsy.newsy.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.newsy.newsy.dto.NewsApiResponse;
+import com.newsy.newsy.dto.NewsDTO;
 import com.newsy.newsy.model.News;
 import com.newsy.newsy.repository.NewsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -12,7 +17,18 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +37,10 @@ public class NewsService {
 
     private final NewsRepository newsRepository;
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final NewsSnapshotStore snapshotStore;
+    private final RelatedArticlesIndex relatedArticles;
 
     @Value("${newsdata.api.key}")
     private String apiKey;
@@ -31,39 +51,165 @@ public class NewsService {
     @Value("${newsdata.maxArticleAgeDays:2}")
     private int maxArticleAgeDays;
 
-    private static final String[] CATEGORIES = {"technology", "sports", "business", "education", "entertainment"};
+    @Value("${news.categories:technology,sports,business,education,entertainment}")
+    private List<String> categories;
+
+    @Value("${news.ingest.fetch-workers:2}")
+    private int fetchWorkers;
+
+    @Value("${news.ingest.parse-workers:1}")
+    private int parseWorkers;
+
+    @Value("${news.ingest.filter-workers:1}")
+    private int filterWorkers;
+
+    @Value("${news.ingest.persist-workers:1}")
+    private int persistWorkers;
+
+    @Value("${news.ingest.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Value("${news.ingest.persist-batch-size:5}")
+    private int persistBatchSize;
+
+    private IngestStage<String> fetchStage;
+    private IngestStage<String> parseStage;
+    private IngestStage<List<News>> filterStage;
+    private IngestStage<Filtered> persistStage;
+
+    // Recently seen article URLs per category, used to tell genuinely new articles from repeats
+    private final Map<String, Set<String>> knownUrls = new ConcurrentHashMap<>();
+
     private static final int ARTICLES_PER_CATEGORY = 4;
     private static final int API_FETCH_SIZE = 10; // Fetch more to filter client-side for date and duplicates
+    private static final long INGEST_TIMEOUT_MINUTES = 10;
+    private static final int KNOWN_URLS_PER_CATEGORY = 50;
+    private static final int SNAPSHOT_ARTICLES_PER_CATEGORY = 5;
+
+    /**
+     * Articles kept for a category, plus the keys of every recent article used to count new ones
+     */
+    private record Filtered(List<News> articles, Set<String> keys) {
+    }
 
-    public NewsService(NewsRepository newsRepository, RestTemplate restTemplate) {
+    public NewsService(NewsRepository newsRepository, RestTemplate restTemplate,
+                       ObjectMapper objectMapper, MeterRegistry meterRegistry, NewsSnapshotStore snapshotStore,
+                       RelatedArticlesIndex relatedArticles) {
         this.newsRepository = newsRepository;
         this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.snapshotStore = snapshotStore;
+        this.relatedArticles = relatedArticles;
+    }
+
+    /**
+     * Build the ingest pipeline: fetch -> parse/map -> filter/dedupe -> batch persist.
+     * Each stage has its own bounded queue and workers, so a slow Mongo write no longer
+     * holds up the next HTTP fetch and throughput follows the slowest stage.
+     */
+    @PostConstruct
+    public void startPipeline() {
+        persistStage = new IngestStage<>("persist", persistWorkers, queueCapacity, persistBatchSize, this::persistStage, meterRegistry);
+        filterStage = new IngestStage<>("filter", filterWorkers, queueCapacity, 1, this::filterStage, meterRegistry);
+        parseStage = new IngestStage<>("parse", parseWorkers, queueCapacity, 1, this::parseStage, meterRegistry);
+        fetchStage = new IngestStage<>("fetch", fetchWorkers, queueCapacity, 1, this::fetchStage, meterRegistry);
+        List.of(persistStage, filterStage, parseStage, fetchStage).forEach(IngestStage::start);
+    }
+
+    @PreDestroy
+    public void stopPipeline() {
+        List.of(fetchStage, parseStage, filterStage, persistStage).forEach(IngestStage::stop);
     }
 
     /**
      * Fetch news from NewsData.io for all categories
      */
     public void fetchAndStoreNews() {
-        log.info("Starting scheduled news fetch at {}", LocalDateTime.now());
+        fetchAndStoreNews(getCategories(), category -> { });
+    }
 
-        for (String category : CATEGORIES) {
-            try {
-                fetchNewsForCategory(category);
-            } catch (Exception e) {
-                log.error("Error fetching news for category {}: {}", category, e.getMessage(), e);
+    /**
+     * Fetch news for the given categories, reporting each finished category (successful or not).
+     * Returns the number of genuinely new articles per category; failed categories are absent.
+     * Throws IngestTimeoutException, carrying the categories finished so far, if the run does not
+     * finish in time; its remaining items are dropped from the stage queues.
+     */
+    public Map<String, Integer> fetchAndStoreNews(List<String> categories, Consumer<String> onCategoryDone) {
+        log.info("Starting news fetch for {} at {}", categories, LocalDateTime.now());
+
+        IngestRun run = new IngestRun(categories, onCategoryDone);
+        try {
+            for (String category : categories) {
+                fetchStage.submit(new IngestStage.Item<>(run, category, category));
+            }
+            if (!run.await(INGEST_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                run.cancel();
+                log.warn("News fetch did not finish within {} minutes, new articles so far: {}",
+                        INGEST_TIMEOUT_MINUTES, run.getNewArticles());
+                afterRun(run);
+                throw new IngestTimeoutException("News fetch did not finish within " + INGEST_TIMEOUT_MINUTES + " minutes",
+                        run.getNewArticles());
             }
+        } catch (InterruptedException e) {
+            run.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("News fetch interrupted", e);
+        }
+
+        log.info("Completed news fetch, new articles per category: {}", run.getNewArticles());
+        afterRun(run);
+        return run.getNewArticles();
+    }
+
+    private void afterRun(IngestRun run) {
+        try {
+            relatedArticles.refresh();
+        } catch (Exception e) {
+            log.warn("Could not refresh related articles: {}", e.getMessage());
         }
+        if (!run.getNewArticles().isEmpty()) {
+            writeSnapshot();
+        }
+    }
 
-        log.info("Completed scheduled news fetch");
+    /**
+     * Write the currently stored articles, grouped by category, to the warm-start snapshot
+     */
+    private void writeSnapshot() {
+        try {
+            Map<String, List<NewsDTO>> byCategory = new LinkedHashMap<>();
+            for (News news : newsRepository.findAllByOrderByFetchedAtDescPublishedAtDesc()) {
+                List<NewsDTO> articles = byCategory.computeIfAbsent(news.getCategory(), c -> new ArrayList<>());
+                if (articles.size() < SNAPSHOT_ARTICLES_PER_CATEGORY) {
+                    articles.add(NewsDTO.fromEntity(news));
+                }
+            }
+            snapshotStore.write(byCategory);
+        } catch (Exception e) {
+            log.warn("Could not build news snapshot: {}", e.getMessage());
+        }
     }
 
     /**
-     * Fetch news for a specific category from NewsData.io
+     * Configured categories (news.categories), lower case
      */
-    private void fetchNewsForCategory(String category) {
-        log.info("Fetching latest news for category: {}", category);
+    public List<String> getCategories() {
+        return categories.stream()
+                .map(c -> c.trim().toLowerCase())
+                .filter(c -> !c.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Stage 1: fetch the raw NewsData.io response for a category
+     */
+    private void fetchStage(List<IngestStage.Item<String>> batch) throws InterruptedException {
+        for (IngestStage.Item<String> item : batch) {
+            String category = item.category();
+            log.info("Fetching latest news for category: {}", category);
 
-        try {
             String url = UriComponentsBuilder.fromUriString(apiUrl)
                     .queryParam("apikey", apiKey)
                     .queryParam("category", category.toLowerCase())
@@ -76,36 +222,136 @@ public class NewsService {
             log.info("Fetching latest {} articles for category: {} (will filter to {} recent articles within {} days)",
                     API_FETCH_SIZE, category, ARTICLES_PER_CATEGORY, maxArticleAgeDays);
 
-            NewsApiResponse response = restTemplate.getForObject(url, NewsApiResponse.class);
+            String body = restTemplate.getForObject(url, String.class);
+            parseStage.submit(item.withPayload(body));
+        }
+    }
+
+    /**
+     * Stage 2: parse the response and map every result to a News entity
+     */
+    private void parseStage(List<IngestStage.Item<String>> batch) throws Exception {
+        for (IngestStage.Item<String> item : batch) {
+            String category = item.category();
+            NewsApiResponse response = item.payload() == null ? null
+                    : objectMapper.readValue(item.payload(), NewsApiResponse.class);
+
+            if (response == null || !"success".equals(response.getStatus())) {
+                // Not recorded: the planner treats the category as failed and retries it soon
+                log.warn("News fetch failed for category: {}. Status: {}", category,
+                        response != null ? response.getStatus() : "null response");
+                item.run().complete(category);
+                continue;
+            }
+            if (response.getResults() == null || response.getResults().isEmpty()) {
+                log.warn("No articles found for category: {}", category);
+                item.run().recordNewArticles(category, 0);
+                item.run().complete(category);
+                continue;
+            }
 
-            if (response != null && "success".equals(response.getStatus())
-                    && response.getResults() != null && !response.getResults().isEmpty()) {
+            List<News> mapped = response.getResults().stream()
+                    .map(article -> mapToNewsEntity(article, capitalizeFirstLetter(category)))
+                    .collect(Collectors.toList());
+            filterStage.submit(item.withPayload(mapped));
+        }
+    }
 
-                List<News> newsList = response.getResults().stream()
-                        .map(article -> mapToNewsEntity(article, capitalizeFirstLetter(category)))
-                        .filter(this::isArticleRecent)
-                        .limit(ARTICLES_PER_CATEGORY)
-                        .collect(Collectors.toList());
+    /**
+     * Stage 3: drop stale articles and duplicates, keep the top few per category
+     */
+    private void filterStage(List<IngestStage.Item<List<News>>> batch) throws InterruptedException {
+        for (IngestStage.Item<List<News>> item : batch) {
+            Set<String> seen = new LinkedHashSet<>();
+            List<News> recent = item.payload().stream()
+                    .filter(this::isArticleRecent)
+                    .filter(news -> seen.add(dedupeKey(news)))
+                    .collect(Collectors.toList());
+            List<News> newsList = recent.stream().limit(ARTICLES_PER_CATEGORY).collect(Collectors.toList());
+
+            if (newsList.isEmpty()) {
+                log.warn("No recent articles (within {} days) found for category: {} after filtering {} results",
+                        maxArticleAgeDays, item.category(), item.payload().size());
+                item.run().recordNewArticles(item.category(), 0);
+                item.run().complete(item.category());
+                continue;
+            }
+            // Seed the known keys from the store before this batch replaces what is stored
+            knownUrls.computeIfAbsent(item.category(), this::loadKnownUrls);
+            log.debug("Kept {} of {} articles for category: {}", newsList.size(), item.payload().size(), item.category());
+            persistStage.submit(item.withPayload(new Filtered(newsList, seen)));
+        }
+    }
 
-                if (!newsList.isEmpty()) {
-                    newsRepository.deleteByCategory(capitalizeFirstLetter(category));
-                    newsRepository.saveAll(newsList);
+    /**
+     * Stage 4: insert the kept articles of every category in the batch at once, then drop each
+     * category's previous articles, so a failed write never leaves a category empty. Articles
+     * only count as seen once written, so a failed run finds them new again next time.
+     * Term vectors for the related-articles index are computed while the batch is at hand.
+     */
+    private void persistStage(List<IngestStage.Item<Filtered>> batch) {
+        List<News> toSave = new ArrayList<>();
+        for (IngestStage.Item<Filtered> item : batch) {
+            toSave.addAll(item.payload().articles());
+        }
+        List<News> saved = newsRepository.saveAll(toSave);
+        relatedArticles.add(saved);
+        Map<String, List<String>> savedIds = saved.stream()
+                .collect(Collectors.groupingBy(News::getCategory, Collectors.mapping(News::getId, Collectors.toList())));
 
-                    log.info("Successfully saved {} recent articles for category: {} (filtered from {} fetched)",
-                            newsList.size(), capitalizeFirstLetter(category), response.getResults().size());
-                } else {
-                    log.warn("No recent articles (within {} days) found for category: {} after filtering {} results",
-                            maxArticleAgeDays, category, response.getResults().size());
+        for (IngestStage.Item<Filtered> item : batch) {
+            String category = capitalizeFirstLetter(item.category());
+            try {
+                List<String> kept = savedIds.getOrDefault(category, List.of());
+                newsRepository.deleteByCategoryAndIdNotIn(category, kept);
+                relatedArticles.retainCategory(category, kept);
+                // Churn is measured over every recent article, not just the few we keep
+                item.run().recordNewArticles(item.category(), countNewArticles(item.category(), item.payload().keys()));
+                log.info("Successfully saved {} recent articles for category: {}", item.payload().articles().size(), category);
+            } catch (Exception e) {
+                log.error("Could not remove previous articles for category {}: {}", category, e.getMessage(), e);
+            } finally {
+                item.run().complete(item.category());
+            }
+        }
+    }
+
+    /**
+     * Count keys not seen in earlier fetches of the category and remember them.
+     * After a restart the set is seeded from the articles currently stored.
+     */
+    private int countNewArticles(String category, Set<String> keys) {
+        Set<String> known = knownUrls.computeIfAbsent(category, this::loadKnownUrls);
+        synchronized (known) {
+            int fresh = 0;
+            for (String key : keys) {
+                if (known.add(key)) {
+                    fresh++;
                 }
-            } else {
-                log.warn("No articles found for category: {}. Status: {}", category,
-                        response != null ? response.getStatus() : "null response");
             }
+            Iterator<String> oldest = known.iterator();
+            while (known.size() > KNOWN_URLS_PER_CATEGORY && oldest.hasNext()) {
+                oldest.next();
+                oldest.remove();
+            }
+            return fresh;
+        }
+    }
 
+    private Set<String> loadKnownUrls(String category) {
+        Set<String> known = new LinkedHashSet<>();
+        try {
+            newsRepository.findTop5ByCategoryIgnoreCase(category).forEach(news -> known.add(dedupeKey(news)));
         } catch (Exception e) {
-            log.error("Failed to fetch news for category {}: {}", category, e.getMessage(), e);
-            throw new RuntimeException("Error fetching news for category: " + category, e);
+            log.warn("Could not load stored articles for category {}: {}", category, e.getMessage());
         }
+        return known;
+    }
+
+    private String dedupeKey(News news) {
+        return news.getUrl() != null && !news.getUrl().isEmpty()
+                ? news.getUrl().toLowerCase()
+                : news.getTitle().toLowerCase();
     }
 
     /**
@@ -253,6 +499,22 @@ public class NewsService {
         return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
     }
 
+    /**
+     * When the stored articles of a category were last fetched, if any are stored
+     */
+    public Optional<LocalDateTime> getLastFetchedAt(String category) {
+        try {
+            return newsRepository.findTop5ByCategoryIgnoreCaseOrderByFetchedAtDescPublishedAtDesc(capitalizeFirstLetter(category))
+                    .stream()
+                    .map(News::getFetchedAt)
+                    .filter(Objects::nonNull)
+                    .findFirst();
+        } catch (Exception e) {
+            log.warn("Could not read last fetch time for category {}: {}", category, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public List<News> fetchTopArticles(String cat, int i) {
         return newsRepository.findTop5ByCategoryIgnoreCase(cat)
                 .stream()
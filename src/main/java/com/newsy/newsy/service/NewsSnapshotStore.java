@@ -0,0 +1,246 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.dto.NewsDTO;
+import com.newsy.newsy.repository.NewsRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Warm-start snapshot of the served news set.
+ * After each successful ingest the per-category articles are written to a small versioned binary
+ * file. On startup the file is memory-mapped and served right away, while the live store is
+ * checked in the background; reads switch to Mongo once it answers and the warm-up period is over.
+ *
+ * File layout (big-endian): magic "NWSY", version, written-at epoch millis, category count,
+ * then per category its name, article count and the NewsDTO fields. Strings are an int length
+ * (-1 for null) followed by UTF-8 bytes; dates are a presence byte, epoch seconds and nanos.
+ */
+@Service
+@Slf4j
+public class NewsSnapshotStore {
+
+    private static final int MAGIC = 0x4E575359; // "NWSY"
+    private static final short VERSION = 1;
+    private static final Duration LIVE_CHECK_RETRY = Duration.ofSeconds(5);
+
+    private final NewsRepository newsRepository;
+
+    @Value("${news.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${news.snapshot.path:data/news-snapshot.bin}")
+    private Path path;
+
+    @Value("${news.snapshot.max-age:P2D}")
+    private Duration maxAge;
+
+    @Value("${news.snapshot.warm-up:PT30S}")
+    private Duration warmUp;
+
+    private volatile Map<String, List<NewsDTO>> snapshot = Collections.emptyMap();
+    private volatile boolean liveReady;
+    private volatile Instant warmUntil = Instant.MIN;
+
+    public NewsSnapshotStore(NewsRepository newsRepository) {
+        this.newsRepository = newsRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled || !Files.isReadable(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                log.warn("Ignoring news snapshot {}: unknown format", path);
+                return;
+            }
+            Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+            if (writtenAt.plus(maxAge).isBefore(Instant.now())) {
+                log.info("Ignoring news snapshot {} written at {}: older than {}", path, writtenAt, maxAge);
+                return;
+            }
+            snapshot = decode(buffer);
+            warmUntil = Instant.now().plus(warmUp);
+            log.info("Loaded news snapshot written at {} with {} categories in {} ms",
+                    writtenAt, snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Could not load news snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Probe the live store off the startup path; until it answers, reads are served from the snapshot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkLiveStore() {
+        if (snapshot.isEmpty()) {
+            liveReady = true;
+            return;
+        }
+        Thread t = new Thread(() -> {
+            while (!liveReady && !Thread.currentThread().isInterrupted()) {
+                try {
+                    newsRepository.count();
+                    liveReady = true;
+                    log.info("Live news store reachable");
+                } catch (Exception e) {
+                    log.warn("Live news store not reachable yet, serving snapshot: {}", e.getMessage());
+                    try {
+                        Thread.sleep(LIVE_CHECK_RETRY.toMillis());
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }, "news-snapshot-live-check");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Snapshot articles to serve instead of the live store, if it should still be used
+     */
+    public Optional<Map<String, List<NewsDTO>>> servable() {
+        Map<String, List<NewsDTO>> current = snapshot;
+        if (current.isEmpty() || (liveReady && Instant.now().isAfter(warmUntil))) {
+            return Optional.empty();
+        }
+        return Optional.of(current);
+    }
+
+    /**
+     * Last written snapshot regardless of the live store state, used as a fallback on read errors
+     */
+    public Optional<Map<String, List<NewsDTO>>> fallback() {
+        Map<String, List<NewsDTO>> current = snapshot;
+        return current.isEmpty() ? Optional.empty() : Optional.of(current);
+    }
+
+    /**
+     * Persist the served set atomically (write to a temp file, then move over the old one)
+     */
+    public void write(Map<String, List<NewsDTO>> byCategory) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "news-snapshot", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                encode(out, byCategory);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshot = Collections.unmodifiableMap(new LinkedHashMap<>(byCategory));
+            log.info("Wrote news snapshot with {} categories to {}", byCategory.size(), path);
+        } catch (IOException e) {
+            log.warn("Could not write news snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void encode(DataOutputStream out, Map<String, List<NewsDTO>> byCategory) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(byCategory.size());
+        for (Map.Entry<String, List<NewsDTO>> entry : byCategory.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (NewsDTO dto : entry.getValue()) {
+                writeString(out, dto.id());
+                writeString(out, dto.title());
+                writeString(out, dto.author());
+                writeString(out, dto.source());
+                writeString(out, dto.url());
+                writeDateTime(out, dto.publishedAt());
+                writeString(out, dto.category());
+                writeString(out, dto.description());
+                writeString(out, dto.imageUrl());
+                writeString(out, dto.sourceIcon());
+            }
+        }
+    }
+
+    private Map<String, List<NewsDTO>> decode(ByteBuffer in) {
+        int categories = in.getInt();
+        Map<String, List<NewsDTO>> result = new LinkedHashMap<>();
+        for (int c = 0; c < categories; c++) {
+            String category = readString(in);
+            int count = in.getInt();
+            List<NewsDTO> articles = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                articles.add(new NewsDTO(readString(in), readString(in), readString(in), readString(in),
+                        readString(in), readDateTime(in), readString(in), readString(in), readString(in),
+                        readString(in)));
+            }
+            result.put(category, Collections.unmodifiableList(articles));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) {
+            return;
+        }
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        long seconds = in.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,170 @@
+package com.newsy.newsy.service;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeUtility;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A newsletter encoded once into MIME bytes, with slots for what differs per recipient.
+ * The rendered HTML is split at the token placeholder; each piece is quoted-printable encoded
+ * on its own and ends in a soft line break, so the recipient's token can be encoded and spliced
+ * in between without touching the surrounding lines. Per message only the To, Date and
+ * Message-ID headers and the token bytes are produced; everything else is written as is.
+ */
+public class NewsletterMimeTemplate {
+
+    /**
+     * Stands in for the unsubscribe token while rendering; survives HTML and QP encoding unchanged
+     */
+    public static final String TOKEN_PLACEHOLDER = "NEWSYUNSUBSCRIBETOKEN";
+
+    private static final byte[] SOFT_BREAK = {'=', '\r', '\n'};
+
+    private final String html;
+    private final String subject;
+    private final byte[] headers;
+    private final List<byte[]> bodySegments;
+    private final byte[] trailer;
+    private final InternetAddress from;
+    private final String messageIdDomain;
+
+    public NewsletterMimeTemplate(String html, String subject, InternetAddress from) throws MessagingException {
+        this.html = html;
+        this.subject = subject;
+        this.from = from;
+        String address = from.getAddress();
+        this.messageIdDomain = address.contains("@") ? address.substring(address.indexOf('@') + 1) : "newsy.local";
+        String boundary = "----=_Newsy_" + UUID.randomUUID().toString().replace("-", "");
+
+        try {
+            StringBuilder h = new StringBuilder();
+            h.append("From: ").append(MimeUtility.fold(6, from.toString())).append("\r\n");
+            h.append("Subject: ").append(MimeUtility.fold(9, MimeUtility.encodeText(subject, "UTF-8", null))).append("\r\n");
+            h.append("MIME-Version: 1.0\r\n");
+            h.append("Content-Type: multipart/mixed; \r\n\tboundary=\"").append(boundary).append("\"\r\n");
+            this.headers = h.toString().getBytes(StandardCharsets.US_ASCII);
+
+            List<byte[]> segments = new ArrayList<>();
+            String[] pieces = html.split(TOKEN_PLACEHOLDER, -1);
+            for (int i = 0; i < pieces.length; i++) {
+                byte[] encoded = quotedPrintable(pieces[i]);
+                segments.add(i == 0 ? concat(("\r\n--" + boundary + "\r\n"
+                        + "Content-Type: text/html; charset=UTF-8\r\n"
+                        + "Content-Transfer-Encoding: quoted-printable\r\n\r\n").getBytes(StandardCharsets.US_ASCII), encoded) : encoded);
+            }
+            this.bodySegments = List.copyOf(segments);
+            this.trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new MessagingException("Could not encode newsletter", e);
+        }
+    }
+
+    public String subject() {
+        return subject;
+    }
+
+    /**
+     * Rendered HTML with the token filled in, for senders that build a regular message instead
+     */
+    public String html(String token) {
+        return html.replace(TOKEN_PLACEHOLDER, HtmlUtils.htmlEscape(token));
+    }
+
+    /**
+     * A message for one recipient that writes the template bytes with its token patched in
+     */
+    public MimeMessage newMessage(Session session, String to, String token) throws MessagingException {
+        return new PreEncodedMessage(session, new InternetAddress(to), token);
+    }
+
+    private void writeTo(OutputStream out, InternetAddress to, String messageId, ZonedDateTime sentAt, String token) throws IOException {
+        out.write(headers);
+        out.write(("To: " + MimeUtility.fold(4, to.toString()) + "\r\n"
+                + "Date: " + DateTimeFormatter.RFC_1123_DATE_TIME.format(sentAt) + "\r\n"
+                + "Message-ID: " + messageId + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        byte[] encodedToken = quotedPrintable(HtmlUtils.htmlEscape(token));
+        for (int i = 0; i < bodySegments.size(); i++) {
+            if (i > 0) {
+                out.write(encodedToken);
+            }
+            out.write(bodySegments.get(i));
+        }
+        out.write(trailer);
+    }
+
+    /**
+     * Quoted-printable encode a piece of the body; the result ends at a line boundary
+     */
+    private static byte[] quotedPrintable(String text) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(text.length() + text.length() / 8 + 8);
+        try (OutputStream qp = encoder(buffer)) {
+            qp.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] encoded = buffer.toByteArray();
+        boolean endsWithLine = encoded.length >= 2 && encoded[encoded.length - 2] == '\r' && encoded[encoded.length - 1] == '\n';
+        return endsWithLine || encoded.length == 0 ? encoded : concat(encoded, SOFT_BREAK);
+    }
+
+    private static OutputStream encoder(OutputStream out) throws IOException {
+        try {
+            return MimeUtility.encode(out, "quoted-printable");
+        } catch (MessagingException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    /**
+     * Carries the addresses the transport needs as headers, but writes the template bytes
+     * instead of serialising a MIME tree. updateHeaders is a no-op, so saveChanges() before
+     * sending costs nothing.
+     */
+    private class PreEncodedMessage extends MimeMessage {
+
+        private final InternetAddress to;
+        private final String token;
+        private final String messageId = "<" + UUID.randomUUID() + "@" + messageIdDomain + ">";
+        private final ZonedDateTime sentAt = ZonedDateTime.now(ZoneOffset.UTC);
+
+        PreEncodedMessage(Session session, InternetAddress to, String token) throws MessagingException {
+            super(session);
+            this.to = to;
+            this.token = token;
+            setFrom(from);
+            setRecipient(Message.RecipientType.TO, to);
+            setSentDate(Date.from(sentAt.toInstant()));
+            setHeader("Message-ID", messageId);
+        }
+
+        @Override
+        protected void updateHeaders() {
+        }
+
+        @Override
+        public void writeTo(OutputStream os, String[] ignoreList) throws IOException {
+            NewsletterMimeTemplate.this.writeTo(os, to, messageId, sentAt, token);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.dto.NewsDTO;
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.repository.NewsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * "More like this" for recently ingested articles.
+ * Term counts (title weighted twice, description once) are computed once per article on the
+ * ingest persist stage. After each ingest run the window (articles seen within
+ * news.related.window, at most news.related.max-articles) is turned into L2-normalised TF-IDF
+ * vectors and every article gets its top news.related.k neighbours by cosine similarity,
+ * scored through an inverted index and split across the fork-join pool. The result replaces
+ * the previous one in a single map, so a lookup is one hash access.
+ * Articles are keyed by URL: re-ingesting the same story under a new id replaces the entry,
+ * and articles deleted when a category is replaced are evicted with retainCategory.
+ */
+@Service
+@Slf4j
+public class RelatedArticlesIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final double MIN_SCORE = 0.1;
+    private static final int ROWS_PER_TASK = 64;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "are", "but", "not", "you", "all", "any", "can", "had", "her", "was", "one",
+            "our", "out", "has", "his", "how", "its", "may", "new", "now", "see", "who", "did", "get", "she",
+            "too", "use", "with", "that", "this", "from", "they", "have", "will", "been", "were", "said", "into",
+            "than", "then", "them", "what", "when", "which", "while", "their", "there", "about", "after",
+            "would", "could", "should", "also", "more", "over", "says", "just", "your", "some", "other");
+
+    private final NewsRepository newsRepository;
+
+    @Value("${news.related.k:5}")
+    private int k;
+
+    @Value("${news.related.window:P2D}")
+    private Duration window;
+
+    @Value("${news.related.max-articles:2000}")
+    private int maxArticles;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Map<String, List<Neighbour>> neighbours = Map.of();
+    private final AtomicLong changes = new AtomicLong();
+    private long computedChanges;
+
+    public RelatedArticlesIndex(NewsRepository newsRepository) {
+        this.newsRepository = newsRepository;
+    }
+
+    /**
+     * Build the index from the stored articles off the startup path; ingest runs keep it current
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        Thread t = new Thread(() -> {
+            try {
+                add(newsRepository.findAllByOrderByFetchedAtDescPublishedAtDesc());
+                refresh();
+            } catch (Exception e) {
+                log.warn("Could not build related articles from the store, waiting for the next ingest: {}", e.getMessage());
+            }
+        }, "related-articles-seed");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Compute term counts for newly persisted articles; they become visible with the next refresh
+     */
+    public void add(List<News> articles) {
+        for (News news : articles) {
+            if (news.getId() == null) {
+                continue;
+            }
+            String key = key(news);
+            Entry previous = entries.get(key);
+            Map<String, Integer> terms = previous != null && previous.sameText(news) ? previous.terms : terms(news);
+            entries.put(key, new Entry(NewsDTO.fromEntity(news), terms,
+                    news.getFetchedAt() != null ? news.getFetchedAt() : LocalDateTime.now()));
+            changes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Evict the category's articles other than the given ids, after the store dropped them
+     */
+    public void retainCategory(String category, Collection<String> keptIds) {
+        Set<String> kept = Set.copyOf(keptIds);
+        if (entries.values().removeIf(e -> category.equalsIgnoreCase(e.article.category()) && !kept.contains(e.article.id()))) {
+            changes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Related articles, most similar first; empty if the id is not in the current window
+     */
+    public Optional<List<NewsDTO>> related(String id) {
+        List<Neighbour> list = neighbours.get(id);
+        return list == null ? Optional.empty() : Optional.of(list.stream().map(Neighbour::article).toList());
+    }
+
+    /**
+     * Whether b is among a's neighbours with at least the given similarity
+     */
+    public boolean isSimilar(String idA, String idB, double minScore) {
+        List<Neighbour> list = idA == null ? null : neighbours.get(idA);
+        if (list == null || idB == null) {
+            return false;
+        }
+        for (Neighbour n : list) {
+            if (idB.equals(n.article().id())) {
+                return n.score() >= minScore;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop articles outside the window and recompute every neighbour list.
+     * Changes made while computing, or a failed computation, leave the index due for the next refresh.
+     */
+    public synchronized void refresh() {
+        long seen = changes.get();
+        if (seen == computedChanges) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(window);
+        entries.values().removeIf(e -> e.seenAt.isBefore(cutoff));
+        List<Entry> docs = new ArrayList<>(entries.values());
+        if (docs.size() > maxArticles) {
+            docs.sort(Comparator.comparing(Entry::seenAt).reversed());
+            docs.subList(maxArticles, docs.size()).forEach(e -> entries.remove(key(e.article)));
+            docs = new ArrayList<>(docs.subList(0, maxArticles));
+        }
+
+        Vectors vectors = vectorize(docs);
+        @SuppressWarnings("unchecked")
+        List<Neighbour>[] rows = new List[docs.size()];
+        ForkJoinPool.commonPool().invoke(new TopK(vectors, docs, rows, 0, docs.size()));
+
+        Map<String, List<Neighbour>> result = new HashMap<>(docs.size() * 2);
+        for (int i = 0; i < docs.size(); i++) {
+            result.put(docs.get(i).article.id(), rows[i]);
+        }
+        neighbours = result;
+        computedChanges = seen;
+        log.info("Related articles computed for {} articles ({} terms) in {} ms",
+                docs.size(), vectors.postings.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * TF-IDF vectors (1 + ln tf, smoothed idf) normalised to unit length, plus the inverted index
+     */
+    private static Vectors vectorize(List<Entry> docs) {
+        Map<String, Integer> termIds = new HashMap<>();
+        List<int[]> df = new ArrayList<>();
+        for (Entry doc : docs) {
+            for (String term : doc.terms.keySet()) {
+                Integer id = termIds.computeIfAbsent(term, t -> {
+                    df.add(new int[1]);
+                    return df.size() - 1;
+                });
+                df.get(id)[0]++;
+            }
+        }
+
+        int n = docs.size();
+        int[][] docTerms = new int[n][];
+        float[][] docWeights = new float[n][];
+        int[] postingSizes = new int[termIds.size()];
+        for (int i = 0; i < n; i++) {
+            Map<String, Integer> terms = docs.get(i).terms;
+            int[] ids = new int[terms.size()];
+            float[] weights = new float[terms.size()];
+            double norm = 0;
+            int j = 0;
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                int id = termIds.get(term.getKey());
+                double idf = Math.log((n + 1.0) / (df.get(id)[0] + 1.0)) + 1.0;
+                double w = (1 + Math.log(term.getValue())) * idf;
+                ids[j] = id;
+                weights[j++] = (float) w;
+                norm += w * w;
+                postingSizes[id]++;
+            }
+            float scale = norm == 0 ? 0 : (float) (1 / Math.sqrt(norm));
+            for (int m = 0; m < weights.length; m++) {
+                weights[m] *= scale;
+            }
+            docTerms[i] = ids;
+            docWeights[i] = weights;
+        }
+
+        Posting[] postings = new Posting[termIds.size()];
+        for (int t = 0; t < postings.length; t++) {
+            postings[t] = new Posting(new int[postingSizes[t]], new float[postingSizes[t]]);
+        }
+        int[] fill = new int[postings.length];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < docTerms[i].length; j++) {
+                int t = docTerms[i][j];
+                postings[t].docs[fill[t]] = i;
+                postings[t].weights[fill[t]++] = docWeights[i][j];
+            }
+        }
+        return new Vectors(docTerms, docWeights, postings);
+    }
+
+    /**
+     * Neighbour lists for a range of rows; ranges larger than ROWS_PER_TASK are split in two
+     */
+    private class TopK extends RecursiveAction {
+
+        private final Vectors vectors;
+        private final List<Entry> docs;
+        private final List<Neighbour>[] rows;
+        private final int from;
+        private final int to;
+
+        TopK(Vectors vectors, List<Entry> docs, List<Neighbour>[] rows, int from, int to) {
+            this.vectors = vectors;
+            this.docs = docs;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TopK(vectors, docs, rows, from, mid), new TopK(vectors, docs, rows, mid, to));
+                return;
+            }
+            float[] scores = new float[docs.size()];
+            int[] touched = new int[docs.size()];
+            for (int i = from; i < to; i++) {
+                int count = 0;
+                int[] terms = vectors.docTerms[i];
+                float[] weights = vectors.docWeights[i];
+                for (int j = 0; j < terms.length; j++) {
+                    Posting posting = vectors.postings[terms[j]];
+                    for (int p = 0; p < posting.docs.length; p++) {
+                        int other = posting.docs[p];
+                        if (other != i) {
+                            if (scores[other] == 0) {
+                                touched[count++] = other;
+                            }
+                            scores[other] += weights[j] * posting.weights[p];
+                        }
+                    }
+                }
+                rows[i] = best(i, scores, touched, count);
+            }
+        }
+
+        /**
+         * Top k of the touched candidates by insertion into a k-slot array, resetting their
+         * scores for the next row
+         */
+        private List<Neighbour> best(int row, float[] scores, int[] touched, int count) {
+            if (k <= 0) {
+                Arrays.fill(scores, 0);
+                return List.of();
+            }
+            String url = docs.get(row).article.url();
+            int[] top = new int[k];
+            float[] topScores = new float[k];
+            int size = 0;
+            for (int c = 0; c < count; c++) {
+                int other = touched[c];
+                float score = scores[other];
+                scores[other] = 0;
+                if (score < MIN_SCORE || (size == k && score <= topScores[k - 1])
+                        || (url != null && url.equalsIgnoreCase(docs.get(other).article.url()))) {
+                    continue;
+                }
+                int pos = size < k ? size++ : k - 1;
+                while (pos > 0 && topScores[pos - 1] < score) {
+                    top[pos] = top[pos - 1];
+                    topScores[pos] = topScores[pos - 1];
+                    pos--;
+                }
+                top[pos] = other;
+                topScores[pos] = score;
+            }
+            List<Neighbour> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(new Neighbour(docs.get(top[i]).article, topScores[i]));
+            }
+            return List.copyOf(result);
+        }
+    }
+
+    private static Map<String, Integer> terms(News news) {
+        Map<String, Integer> terms = new HashMap<>();
+        count(news.getTitle(), 2, terms);
+        count(news.getDescription(), 1, terms);
+        return terms;
+    }
+
+    private static void count(String text, int weight, Map<String, Integer> terms) {
+        if (text == null) {
+            return;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(token) && !token.chars().allMatch(Character::isDigit)) {
+                terms.merge(token, weight, Integer::sum);
+            }
+        }
+    }
+
+    private static String key(News news) {
+        return news.getUrl() != null && !news.getUrl().isEmpty() ? news.getUrl().toLowerCase(Locale.ROOT) : news.getId();
+    }
+
+    private static String key(NewsDTO article) {
+        return article.url() != null && !article.url().isEmpty() ? article.url().toLowerCase(Locale.ROOT) : article.id();
+    }
+
+    private record Entry(NewsDTO article, Map<String, Integer> terms, LocalDateTime seenAt) {
+
+        boolean sameText(News news) {
+            return Objects.equals(article.title(), news.getTitle())
+                    && Objects.equals(article.description(), news.getDescription());
+        }
+    }
+
+    private record Neighbour(NewsDTO article, float score) {
+    }
+
+    private record Vectors(int[][] docTerms, float[][] docWeights, Posting[] postings) {
+    }
+
+    private record Posting(int[] docs, float[] weights) {
+    }
+}
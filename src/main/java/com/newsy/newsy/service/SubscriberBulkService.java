@@ -0,0 +1,428 @@
+package com.newsy.newsy.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.newsy.newsy.dto.SubscriberExportRow;
+import com.newsy.newsy.dto.SubscriberImportReport;
+import com.newsy.newsy.dto.SubscriberImportRow;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streaming subscriber import and export (CSV or NDJSON) for migrations and list moves.
+ * Import reads the body row by row and writes in chunks of subscribers.import.chunk-size: each
+ * chunk is validated, de-duplicated by email (the last row wins) and stored with one unordered
+ * bulk upsert, so memory stays bounded by the chunk whatever the file size. New unverified
+ * subscribers are not mailed inline; they are marked for the VerificationMailQueue.
+ * Export streams from a repository cursor straight to the response.
+ *
+ * Export and import form a migration format: rows carry verified, unsubscribed,
+ * lastNewsletterDate, token and createdAt, and a new subscriber is stored with them (see
+ * SubscriberImportRow). An existing subscriber only gets categories and delivery window updated.
+ * CSV has a header row; recognised columns are email, categories (separated by ; or |), timezone,
+ * deliveryHour, verified, unsubscribed, lastNewsletterDate, token and createdAt; others are ignored.
+ * Import does not apply app.max-subscribers.
+ */
+@Service
+@Slf4j
+public class SubscriberBulkService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String[] EXPORT_COLUMNS = {"email", "categories", "timezone", "deliveryHour",
+            "verified", "unsubscribed", "lastNewsletterDate", "token", "createdAt"};
+
+    public enum Format {
+        CSV(MediaType.parseMediaType("text/csv")),
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Optional<Format> of(String name) {
+            return Arrays.stream(values()).filter(f -> f.name().equalsIgnoreCase(name)).findFirst();
+        }
+
+        public static Optional<Format> fromMediaType(MediaType type) {
+            return Arrays.stream(values()).filter(f -> f.mediaType.isCompatibleWith(type)).findFirst();
+        }
+    }
+
+    private final SubscriberRepository repo;
+    private final SubscriberIndex index;
+    private final VerificationMailQueue verificationMailQueue;
+    private final Validator validator;
+    private final ObjectReader rowReader;
+    private final ObjectWriter rowWriter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${subscribers.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public SubscriberBulkService(SubscriberRepository repo, SubscriberIndex index,
+                                 VerificationMailQueue verificationMailQueue, Validator validator,
+                                 ObjectMapper objectMapper) {
+        this.repo = repo;
+        this.index = index;
+        this.verificationMailQueue = verificationMailQueue;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(SubscriberImportRow.class);
+        this.rowWriter = objectMapper.writerFor(SubscriberExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Import all rows; verified is the default for rows without a verified value (true: stored as
+     * verified, no mail).
+     * Throws IllegalArgumentException if a CSV body has no email column.
+     */
+    public SubscriberImportReport importSubscribers(InputStream in, Format format, boolean verified) throws IOException {
+        long start = System.nanoTime();
+        SubscriberImportReport report = new SubscriberImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource rows = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+        Map<String, Subscriber> chunk = new LinkedHashMap<>();
+        Instant now = Instant.now();
+
+        for (ParsedRow parsed = rows.next(); parsed != null; parsed = rows.next()) {
+            report.setRows(report.getRows() + 1);
+            String error = parsed.error() != null ? parsed.error() : validate(parsed.row());
+            if (error != null) {
+                report.setInvalid(report.getInvalid() + 1);
+                if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                    report.getErrors().add("line " + parsed.line() + ": " + error);
+                }
+                continue;
+            }
+            Subscriber s = toSubscriber(parsed.row(), verified, now);
+            if (chunk.put(s.getEmail(), s) != null) {
+                report.setDuplicates(report.getDuplicates() + 1);
+            }
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, report);
+            }
+        }
+        flush(chunk, report);
+
+        if (report.getImported() + report.getUpdated() > 0) {
+            index.refresh();
+        }
+        if (report.getVerificationQueued() > 0) {
+            verificationMailQueue.wake();
+        }
+        report.setMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Subscriber import: {} rows, {} new, {} updated, {} duplicates, {} invalid, {} failed, {} verification mails queued in {} ms",
+                report.getRows(), report.getImported(), report.getUpdated(), report.getDuplicates(),
+                report.getInvalid(), report.getFailed(), report.getVerificationQueued(), report.getMillis());
+        return report;
+    }
+
+    /**
+     * Write every subscriber to out, reading them from a cursor; returns the number written.
+     * out is flushed but not closed.
+     */
+    public long exportSubscribers(OutputStream out, Format format) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Subscriber> subscribers = repo.streamAllBy()) {
+            if (format == Format.CSV) {
+                writer.write(String.join(",", EXPORT_COLUMNS));
+                writer.write('\n');
+                for (var it = subscribers.iterator(); it.hasNext(); count++) {
+                    writeCsv(writer, it.next());
+                }
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                for (var it = subscribers.iterator(); it.hasNext(); count++) {
+                    rowWriter.writeValue(generator, SubscriberExportRow.fromEntity(it.next()));
+                }
+                if (count > 0) {
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void flush(Map<String, Subscriber> chunk, SubscriberImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        SubscriberRepository.UpsertResult result = repo.upsertByEmail(new ArrayList<>(chunk.values()));
+        chunk.clear();
+        report.setImported(report.getImported() + result.inserted().size());
+        report.setUpdated(report.getUpdated() + result.updated());
+        report.setFailed(report.getFailed() + result.failed());
+        report.setVerificationQueued(report.getVerificationQueued()
+                + result.inserted().stream().filter(s -> s.getVerificationQueuedAt() != null).count());
+    }
+
+    private String validate(SubscriberImportRow row) {
+        for (ConstraintViolation<SubscriberImportRow> violation : validator.validate(row)) {
+            return violation.getPropertyPath() + " " + violation.getMessage();
+        }
+        if (row.getTimezone() != null && !SubscriptionService.isValidTimezone(row.getTimezone())) {
+            return "timezone is not a valid IANA zone id";
+        }
+        return null;
+    }
+
+    private static Subscriber toSubscriber(SubscriberImportRow row, boolean verified, Instant now) {
+        Subscriber s = new Subscriber();
+        s.setEmail(row.getEmail().trim());
+        s.setCategories(row.getCategories());
+        s.setTimezone(row.getTimezone());
+        s.setDeliveryHour(row.getDeliveryHour());
+        s.setUnsubscribed(row.isUnsubscribed());
+        s.setVerified(row.getVerified() != null ? row.getVerified() : verified);
+        s.setLastNewsletterDate(row.getLastNewsletterDate());
+        s.setVerificationToken(row.getToken() != null ? row.getToken() : UUID.randomUUID().toString());
+        s.setCreatedAt(row.getCreatedAt() != null ? row.getCreatedAt() : now);
+        if (!s.isVerified() && !s.isUnsubscribed()) {
+            s.setVerificationQueuedAt(now);
+        }
+        return s;
+    }
+
+    private static void writeCsv(Writer writer, Subscriber s) throws IOException {
+        writeCell(writer, s.getEmail());
+        writer.write(',');
+        writeCell(writer, s.getCategories() == null ? null : String.join(";", s.getCategories()));
+        writer.write(',');
+        writeCell(writer, s.getTimezone());
+        writer.write(',');
+        writeCell(writer, s.getDeliveryHour() == null ? null : s.getDeliveryHour().toString());
+        writer.write(',');
+        writer.write(s.isVerified() ? "true" : "false");
+        writer.write(',');
+        writer.write(s.isUnsubscribed() ? "true" : "false");
+        writer.write(',');
+        writeCell(writer, s.getLastNewsletterDate());
+        writer.write(',');
+        writeCell(writer, s.getVerificationToken());
+        writer.write(',');
+        writeCell(writer, s.getCreatedAt() == null ? null : s.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    private static void writeCell(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * A parsed row, or the reason it could not be parsed; line is where the row starts
+     */
+    private record ParsedRow(long line, SubscriberImportRow row, String error) {
+    }
+
+    private interface RowSource {
+
+        /**
+         * Next row, or null at the end of input
+         */
+        ParsedRow next() throws IOException;
+    }
+
+    private class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(line, rowReader.readValue(text), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(line, null, "not a subscriber JSON object (" + e.getOriginalMessage() + ")");
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 records: quoted cells may contain separators, doubled quotes and line breaks
+     */
+    private static class CsvRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long line = 1;
+
+        CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    columns.putIfAbsent(header.get(i).trim().replace("\uFEFF", "").toLowerCase(Locale.ROOT), i);
+                }
+            }
+            if (!columns.containsKey("email")) {
+                throw new IllegalArgumentException("CSV header must contain an email column");
+            }
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            List<String> cells;
+            long start;
+            do {
+                start = line;
+                cells = readRecord();
+            } while (cells != null && cells.size() == 1 && cells.get(0).isBlank());
+            if (cells == null) {
+                return null;
+            }
+            SubscriberImportRow row = new SubscriberImportRow();
+            row.setEmail(cell(cells, "email"));
+            String categories = cell(cells, "categories");
+            row.setCategories(categories == null ? null : Arrays.stream(categories.split("[;|]"))
+                    .map(String::trim)
+                    .filter(c -> !c.isEmpty())
+                    .toList());
+            row.setTimezone(cell(cells, "timezone"));
+            String deliveryHour = cell(cells, "deliveryhour");
+            if (deliveryHour != null) {
+                try {
+                    row.setDeliveryHour(Integer.valueOf(deliveryHour));
+                } catch (NumberFormatException e) {
+                    return new ParsedRow(start, null, "deliveryHour is not a number");
+                }
+            }
+            String unsubscribed = cell(cells, "unsubscribed");
+            row.setUnsubscribed(unsubscribed != null && isTrue(unsubscribed));
+            String verified = cell(cells, "verified");
+            row.setVerified(verified == null ? null : isTrue(verified));
+            row.setLastNewsletterDate(cell(cells, "lastnewsletterdate"));
+            row.setToken(cell(cells, "token"));
+            String createdAt = cell(cells, "createdat");
+            if (createdAt != null) {
+                try {
+                    row.setCreatedAt(Instant.parse(createdAt));
+                } catch (DateTimeParseException e) {
+                    return new ParsedRow(start, null, "createdAt is not an ISO-8601 instant");
+                }
+            }
+            return new ParsedRow(start, row, null);
+        }
+
+        private static boolean isTrue(String value) {
+            return value.equalsIgnoreCase("true") || value.equals("1");
+        }
+
+        /**
+         * Trimmed cell of the named column, null when absent or empty
+         */
+        private String cell(List<String> cells, String column) {
+            Integer i = columns.get(column);
+            if (i == null || i >= cells.size()) {
+                return null;
+            }
+            String value = cells.get(i).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            for (; c != -1; c = reader.read()) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            cell.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        cell.append((char) c);
+                    }
+                } else if (c == '"' && cell.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    break;
+                } else if (c != '\r') {
+                    cell.append((char) c);
+                }
+            }
+            cells.add(cell.toString());
+            return cells;
+        }
+    }
+}
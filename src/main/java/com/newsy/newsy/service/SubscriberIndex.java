@@ -0,0 +1,405 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberChangeFeed;
+import com.newsy.newsy.repository.SubscriberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory audience index: active (verified, not unsubscribed) subscribers and, per category,
+ * the set of those who want it.
+ * Every active subscriber gets a dense int slot holding a compact immutable Member; categories are
+ * kept only as one BitSet of slots per category, so resolving audiences or counting them never
+ * touches the store. The index is built once after startup and kept current from the subscriber
+ * change feed (MongoDB change streams). Without a feed (standalone Mongo, embedded storage) it
+ * reads the subscribers changed since the last poll (updatedAt) every newsletter.index.poll-interval
+ * and reloads fully every newsletter.index.full-reload-interval, which also picks up deletions.
+ * Writes made by this instance are applied directly as well.
+ * Until the first load succeeds, callers fall back to scanning the repository.
+ */
+@Service
+@Slf4j
+public class SubscriberIndex {
+
+    private final SubscriberRepository repo;
+    private final ObjectProvider<SubscriberChangeFeed> changeFeed;
+
+    // Re-read this much before the last poll, for writes committed late or clocks slightly apart
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+
+    /**
+     * What delivery needs of an active subscriber
+     */
+    public record Member(String id, String email, String token, String timezone, Integer deliveryHour,
+                         String lastNewsletterDate, Instant createdAt) {
+
+        static Member of(Subscriber s) {
+            return new Member(s.getId(), s.getEmail(), s.getVerificationToken(), intern(s.getTimezone()),
+                    s.getDeliveryHour(), intern(s.getLastNewsletterDate()), s.getCreatedAt());
+        }
+
+        Member withLastNewsletterDate(String date) {
+            return new Member(id, email, token, timezone, deliveryHour, intern(date), createdAt);
+        }
+
+        // Few distinct time zones and dates, repeated across every subscriber
+        private static String intern(String value) {
+            return value == null ? null : value.intern();
+        }
+    }
+
+    /**
+     * Active subscribers with exactly the same (normalised) categories, who get the same articles
+     */
+    public record Audience(List<String> categories, List<Member> members) {
+    }
+
+    @Value("${newsletter.index.poll-interval:PT1M}")
+    private Duration pollInterval;
+
+    @Value("${newsletter.index.full-reload-interval:PT1H}")
+    private Duration fullReloadInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final List<Member> slots = new ArrayList<>();
+    private final BitSet used = new BitSet();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private volatile boolean ready;
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile SubscriberChangeFeed.Cursor current;
+    private volatile Instant polledUpTo;
+    private volatile Instant reloadedAt;
+
+    public SubscriberIndex(SubscriberRepository repo, ObjectProvider<SubscriberChangeFeed> changeFeed) {
+        this.repo = repo;
+        this.changeFeed = changeFeed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        Thread t = new Thread(this::maintain, "subscriber-index");
+        t.setDaemon(true);
+        t.start();
+        worker = t;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        SubscriberChangeFeed.Cursor cursor = current;
+        if (cursor != null) {
+            cursor.close();
+        }
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    /**
+     * Active subscribers grouped by their category set, or empty if the index is not loaded yet.
+     * Subscribers without categories are left out.
+     */
+    public Optional<List<Audience>> audiences() {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<String> categories = byCategory.keySet().stream().sorted().toList();
+            BitSet[] membership = new BitSet[slots.size()];
+            for (int c = 0; c < categories.size(); c++) {
+                BitSet members = byCategory.get(categories.get(c));
+                for (int slot = members.nextSetBit(0); slot >= 0; slot = members.nextSetBit(slot + 1)) {
+                    if (membership[slot] == null) {
+                        membership[slot] = new BitSet(categories.size());
+                    }
+                    membership[slot].set(c);
+                }
+            }
+            Map<BitSet, List<Member>> groups = new LinkedHashMap<>();
+            for (int slot = used.nextSetBit(0); slot >= 0; slot = used.nextSetBit(slot + 1)) {
+                if (membership[slot] != null) {
+                    groups.computeIfAbsent(membership[slot], m -> new ArrayList<>()).add(slots.get(slot));
+                }
+            }
+            List<Audience> audiences = new ArrayList<>(groups.size());
+            groups.forEach((mask, members) -> audiences.add(new Audience(
+                    mask.stream().mapToObj(categories::get).toList(), members)));
+            return Optional.of(audiences);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Group subscribers read from the store the way audiences() does, for use before the index is loaded
+     */
+    public static List<Audience> audiencesOf(Collection<Subscriber> subscribers) {
+        Map<List<String>, List<Member>> groups = new LinkedHashMap<>();
+        for (Subscriber s : subscribers) {
+            List<String> categories = s.getCategories() == null ? List.of() : s.getCategories().stream()
+                    .filter(Objects::nonNull)
+                    .filter(c -> !c.isBlank())
+                    .map(SubscriberIndex::normalize)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            if (!categories.isEmpty()) {
+                groups.computeIfAbsent(categories, c -> new ArrayList<>()).add(Member.of(s));
+            }
+        }
+        List<Audience> audiences = new ArrayList<>(groups.size());
+        groups.forEach((categories, members) -> audiences.add(new Audience(categories, members)));
+        return audiences;
+    }
+
+    /**
+     * Number of active subscribers per category, or empty if the index is not loaded yet
+     */
+    public Optional<Map<String, Integer>> countsByCategory() {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new TreeMap<>();
+            byCategory.forEach((category, members) -> counts.put(category, members.cardinality()));
+            return Optional.of(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a subscriber written by this instance
+     */
+    public void put(Subscriber s) {
+        if (s.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(s.getId());
+            if (s.isVerified() && !s.isUnsubscribed()) {
+                add(s);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mirror a lastNewsletterDate update made through the repository
+     */
+    public void markNewsletterSent(Collection<String> ids, String date) {
+        lock.writeLock().lock();
+        try {
+            for (String id : ids) {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    slots.set(slot, slots.get(slot).withLastNewsletterDate(date));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reload from the repository now, for writes that bypassed put() such as bulk imports
+     */
+    public void refresh() {
+        tryReload();
+    }
+
+    /**
+     * Keep the index current: follow the change feed while it works, otherwise poll for changes on
+     * an interval. Every (re)connect starts with a full reload, after the stream has been opened,
+     * so no change falls between the two.
+     */
+    private void maintain() {
+        boolean warned = false;
+        while (running) {
+            SubscriberChangeFeed feed = changeFeed.getIfAvailable();
+            try (SubscriberChangeFeed.Cursor cursor = feed == null ? null : open(feed, warned)) {
+                if (cursor == null) {
+                    tryPoll();
+                } else {
+                    reload();
+                    current = cursor;
+                    log.info("Subscriber index following change stream");
+                    while (running) {
+                        apply(cursor.next());
+                    }
+                }
+            } catch (FeedUnavailableException e) {
+                warned = true;
+                tryPoll();
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Subscriber index update failed, retrying in {}: {}", pollInterval, e.getMessage());
+            }
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private SubscriberChangeFeed.Cursor open(SubscriberChangeFeed feed, boolean warned) {
+        try {
+            return feed.open();
+        } catch (Exception e) {
+            if (!warned) {
+                log.info("Subscriber change stream unavailable ({}), polling every {}", e.getMessage(), pollInterval);
+            }
+            throw new FeedUnavailableException();
+        }
+    }
+
+    private void tryReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Subscriber index reload failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply the subscribers changed since the last poll; reload fully when that is due
+     */
+    void tryPoll() {
+        try {
+            Instant now = Instant.now();
+            if (polledUpTo == null || reloadedAt == null || !now.isBefore(reloadedAt.plus(fullReloadInterval))) {
+                reload();
+                return;
+            }
+            List<Subscriber> changed = repo.findByUpdatedAtGreaterThanEqual(polledUpTo.minus(POLL_OVERLAP));
+            changed.forEach(this::put);
+            polledUpTo = now;
+            if (!changed.isEmpty()) {
+                log.debug("Subscriber index applied {} changed subscribers", changed.size());
+            }
+        } catch (Exception e) {
+            log.warn("Subscriber index poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        List<Subscriber> all = repo.findAll();
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            slots.clear();
+            used.clear();
+            byCategory.clear();
+            for (Subscriber s : all) {
+                if (s.getId() != null && s.isVerified() && !s.isUnsubscribed()) {
+                    add(s);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!ready) {
+            log.info("Subscriber index loaded {} active subscribers in {} ms",
+                    used.cardinality(), (System.nanoTime() - start) / 1_000_000);
+        }
+        polledUpTo = startedAt;
+        reloadedAt = startedAt;
+        ready = true;
+    }
+
+    private void apply(SubscriberChangeFeed.Change change) {
+        if (change.id() == null) {
+            return;
+        }
+        if (change.subscriber() == null) {
+            lock.writeLock().lock();
+            try {
+                remove(change.id());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else {
+            put(change.subscriber());
+        }
+    }
+
+    /**
+     * Must hold the write lock
+     */
+    private void add(Subscriber s) {
+        int slot = used.nextClearBit(0);
+        Member member = Member.of(s);
+        if (slot == slots.size()) {
+            slots.add(member);
+        } else {
+            slots.set(slot, member);
+        }
+        used.set(slot);
+        slotById.put(s.getId(), slot);
+        if (s.getCategories() != null) {
+            for (String category : s.getCategories()) {
+                if (category != null && !category.isBlank()) {
+                    byCategory.computeIfAbsent(normalize(category), c -> new BitSet()).set(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Must hold the write lock
+     */
+    private void remove(String id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        used.clear(slot);
+        slots.set(slot, null);
+        byCategory.values().removeIf(members -> {
+            members.clear(slot);
+            return members.isEmpty();
+        });
+    }
+
+    private static String normalize(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class FeedUnavailableException extends RuntimeException {
+    }
+}
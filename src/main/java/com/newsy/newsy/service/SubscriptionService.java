@@ -8,9 +8,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.mail.MessagingException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -18,11 +25,16 @@ public class SubscriptionService {
 
     private final SubscriberRepository repo;
     private final EmailService emailService;
+    private final SubscriberIndex index;
 
     @Value("${app.max-subscribers:200}")
     private int maxSubscribers;
 
     public String subscribe(SubscribeRequest req) {
+        if (req.getTimezone() != null && !isValidTimezone(req.getTimezone())) {
+            return "invalid_timezone";
+        }
+
         // Basic check
         long count = repo.count();
         if (count >= maxSubscribers) {
@@ -40,7 +52,8 @@ public class SubscriptionService {
                     e.setVerificationToken(UUID.randomUUID().toString());
                 }
                 e.setCategories(req.getCategories());
-                repo.save(e);
+                applyDeliveryWindow(e, req);
+                save(e);
                 try { emailService.sendVerificationEmail(e.getEmail(), e.getVerificationToken()); }
                 catch (MessagingException ex) { return "failed_to_send_verification"; }
                 return "verification_sent";
@@ -52,8 +65,9 @@ public class SubscriptionService {
                 // not yet verified — re-send verification
                 if (e.getVerificationToken() == null || e.getVerificationToken().isBlank()) {
                     e.setVerificationToken(UUID.randomUUID().toString());
-                    repo.save(e);
                 }
+                applyDeliveryWindow(e, req);
+                save(e);
                 try { emailService.sendVerificationEmail(e.getEmail(), e.getVerificationToken()); }
                 catch (MessagingException ex) { return "failed_to_send_verification"; }
                 return "verification_sent";
@@ -67,8 +81,10 @@ public class SubscriptionService {
                 .verified(false)
                 .unsubscribed(false)
                 .verificationToken(UUID.randomUUID().toString())
+                .timezone(req.getTimezone())
+                .deliveryHour(req.getDeliveryHour())
                 .build();
-        repo.save(s);
+        save(s);
 
         try {
             emailService.sendVerificationEmail(s.getEmail(), s.getVerificationToken());
@@ -84,7 +100,7 @@ public class SubscriptionService {
         if (s.isEmpty()) return "invalid_token";
         Subscriber sub = s.get();
         sub.setVerified(true);
-        repo.save(sub);
+        save(sub);
         return "verified";
     }
 
@@ -93,13 +109,72 @@ public class SubscriptionService {
         if (s.isEmpty()) return "not_found";
         Subscriber sub = s.get();
         sub.setUnsubscribed(true);
-        repo.save(sub);
+        save(sub);
         return "unsubscribed";
     }
 
-    public List<Subscriber> getVerifiedActiveSubscribers() {
-        return repo.findAll()
-                .stream()
+    /**
+     * Remember the local date (value) each subscriber id (key) last received the newsletter.
+     * One targeted update per distinct date, so concurrent changes (e.g. unsubscribes) are kept.
+     */
+    public void markNewsletterSent(Map<String, String> dateById) {
+        dateById.entrySet().stream()
+                .filter(e -> e.getKey() != null && e.getValue() != null)
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((date, ids) -> {
+                    repo.updateLastNewsletterDate(ids, date);
+                    index.markNewsletterSent(ids, date);
+                });
+    }
+
+    private void save(Subscriber s) {
+        s.setUpdatedAt(Instant.now());
+        repo.save(s);
+        index.put(s);
+    }
+
+    private void applyDeliveryWindow(Subscriber s, SubscribeRequest req) {
+        if (req.getTimezone() != null) {
+            s.setTimezone(req.getTimezone());
+        }
+        if (req.getDeliveryHour() != null) {
+            s.setDeliveryHour(req.getDeliveryHour());
+        }
+    }
+
+    static boolean isValidTimezone(String timezone) {
+        try {
+            ZoneId.of(timezone);
+            return true;
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Active subscribers grouped by category set, served from the in-memory index; scans the
+     * repository only until the index is loaded
+     */
+    public List<SubscriberIndex.Audience> getAudiences() {
+        return index.audiences().orElseGet(() -> SubscriberIndex.audiencesOf(activeFromStore()));
+    }
+
+    /**
+     * Active subscribers per (normalised) category
+     */
+    public Map<String, Integer> getSubscriberCountsByCategory() {
+        return index.countsByCategory().orElseGet(() -> activeFromStore().stream()
+                .filter(s -> s.getCategories() != null)
+                .flatMap(s -> s.getCategories().stream()
+                        .filter(c -> c != null && !c.isBlank())
+                        .map(c -> c.trim().toLowerCase(Locale.ROOT))
+                        .distinct())
+                .collect(Collectors.groupingBy(c -> c, TreeMap::new, Collectors.summingInt(c -> 1))));
+    }
+
+    private List<Subscriber> activeFromStore() {
+        return repo.findAll().stream()
                 .filter(s -> s.isVerified() && !s.isUnsubscribed())
                 .toList();
     }
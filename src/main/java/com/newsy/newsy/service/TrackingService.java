@@ -0,0 +1,294 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.repository.TrackingCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Newsletter open/click tracking with buffered writes.
+ * Hits only bump a striped in-memory counter (LongAdder in a ConcurrentHashMap), so the tracking
+ * endpoints never touch disk or the store. A background thread moves the deltas into a small
+ * write-ahead file every tracking.wal-interval and flushes them to the store in one batch of
+ * increments every tracking.flush-interval. After a crash the file is replayed at startup,
+ * so at most one WAL interval of hits is lost. While the store is unreachable the file is compacted
+ * to one line per key, which keeps it bounded.
+ * Counting is at-least-once: a crash between a successful batch and the WAL delete replays that
+ * batch, so counters are approximate and not meant for billing.
+ * Without tracking.secret tracking is off: newsletters link straight to the articles, since links
+ * signed with a per-process key would stop resolving after a restart or on another instance.
+ */
+@Service
+@Slf4j
+public class TrackingService {
+
+    private static final char SEPARATOR = '|';
+    private static final int SIGNATURE_BYTES = 12;
+    private static final long MAX_WAL_BYTES = 1024 * 1024;
+
+    private final TrackingCounterRepository counterRepository;
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> unflushed = new HashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tracking-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${app.base-url:http://localhost:8080}")
+    private String appBaseUrl;
+
+    @Value("${tracking.secret:}")
+    private String secret;
+
+    @Value("${tracking.wal-path:data/tracking.wal}")
+    private Path walPath;
+
+    @Value("${tracking.wal-interval:PT1S}")
+    private Duration walInterval;
+
+    @Value("${tracking.flush-interval:PT30S}")
+    private Duration flushInterval;
+
+    private boolean enabled;
+    private ThreadLocal<Mac> mac;
+
+    public TrackingService(TrackingCounterRepository counterRepository) {
+        this.counterRepository = counterRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        enabled = secret != null && !secret.isBlank();
+        if (enabled) {
+            byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+            mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac m = Mac.getInstance("HmacSHA256");
+                    m.init(new SecretKeySpec(key, "HmacSHA256"));
+                    return m;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } else {
+            log.warn("TRACKING_SECRET not set; newsletter opens and clicks are not tracked and links go straight to the articles");
+        }
+
+        replayWal();
+        flusher.scheduleWithFixedDelay(this::checkpoint, walInterval.toMillis(), walInterval.toMillis(), TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Persist what is still in memory to the WAL; it is flushed to the store after the next start
+     */
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        checkpoint();
+    }
+
+    /**
+     * Issue id for a newsletter sent now
+     */
+    public String currentIssue() {
+        return LocalDate.now(ZoneOffset.UTC).toString();
+    }
+
+    // Values go in as URI variables so they are encoded strictly: a literal '+' in a query
+    // parameter would be decoded as a space and break the signature
+
+    /**
+     * Open pixel for an issue, or null when tracking is off
+     */
+    public String openPixelUrl(String issue) {
+        if (!enabled) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUriString(appBaseUrl).path("/api/track/open")
+                .queryParam("i", "{i}")
+                .queryParam("s", "{s}")
+                .encode()
+                .buildAndExpand(issue, sign(issue))
+                .toUriString();
+    }
+
+    /**
+     * Tracked redirect to the article, or the article URL itself when tracking is off
+     */
+    public String clickUrl(String issue, String url) {
+        if (!enabled) {
+            return url;
+        }
+        return UriComponentsBuilder.fromUriString(appBaseUrl).path("/api/track/click")
+                .queryParam("i", "{i}")
+                .queryParam("u", "{u}")
+                .queryParam("s", "{s}")
+                .encode()
+                .buildAndExpand(issue, url, sign(issue + SEPARATOR + url))
+                .toUriString();
+    }
+
+    /**
+     * Count an open; returns false if the signature does not match
+     */
+    public boolean recordOpen(String issue, String signature) {
+        if (!verify(issue, signature)) {
+            return false;
+        }
+        increment("open" + SEPARATOR + issue);
+        return true;
+    }
+
+    /**
+     * Count a click; returns false if the signature does not match, in which case the url
+     * must not be used as a redirect target
+     */
+    public boolean recordClick(String issue, String url, String signature) {
+        if (!verify(issue + SEPARATOR + url, signature)) {
+            return false;
+        }
+        increment("click" + SEPARATOR + issue + SEPARATOR + url);
+        return true;
+    }
+
+    private void increment(String counterKey) {
+        pending.computeIfAbsent(counterKey, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Move pending deltas into the write-ahead file and the unflushed totals
+     */
+    private synchronized void checkpoint() {
+        Map<String, Long> deltas = new HashMap<>();
+        pending.forEach((k, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(k, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            boolean compact = Files.exists(walPath) && Files.size(walPath) > MAX_WAL_BYTES;
+            deltas.forEach((k, v) -> unflushed.merge(k, v, Long::sum));
+            writeWal(compact ? unflushed : deltas, !compact);
+        } catch (IOException e) {
+            log.warn("Could not write tracking WAL {}: {}", walPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Apply unflushed totals to the store in one batch, then truncate the WAL
+     */
+    private synchronized void flush() {
+        if (unflushed.isEmpty()) {
+            return;
+        }
+        try {
+            counterRepository.incrementAll(unflushed);
+            log.debug("Flushed {} tracking counters", unflushed.size());
+            unflushed.clear();
+            Files.deleteIfExists(walPath);
+            prune();
+        } catch (Exception e) {
+            log.warn("Tracking flush failed, keeping {} counters for the next attempt: {}", unflushed.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drop idle counters of issues older than a few days so the key set stays small
+     */
+    private void prune() {
+        String cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(3).toString();
+        pending.entrySet().removeIf(e -> e.getValue().sum() == 0 && issueOf(e.getKey()).compareTo(cutoff) < 0);
+    }
+
+    private void replayWal() {
+        if (!Files.exists(walPath)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(walPath, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                int space = line.lastIndexOf(' ');
+                if (space > 0) {
+                    unflushed.merge(URLDecoder.decode(line.substring(0, space), StandardCharsets.UTF_8),
+                            Long.parseLong(line.substring(space + 1)), Long::sum);
+                }
+            }
+            log.info("Replayed {} tracking counters from {}", unflushed.size(), walPath);
+        } catch (Exception e) {
+            log.warn("Could not replay tracking WAL {}: {}", walPath, e.getMessage());
+        }
+    }
+
+    private void writeWal(Map<String, Long> entries, boolean append) throws IOException {
+        Path dir = walPath.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path target = append ? walPath : Files.createTempFile(dir, "tracking", ".wal");
+        try (BufferedWriter out = Files.newBufferedWriter(target, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, Long> e : entries.entrySet()) {
+                out.write(URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8));
+                out.write(' ');
+                out.write(Long.toString(e.getValue()));
+                out.newLine();
+            }
+        }
+        if (!append) {
+            Files.move(target, walPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private String sign(String value) {
+        byte[] digest = mac.get().doFinal(value.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, SIGNATURE_BYTES));
+    }
+
+    private boolean verify(String value, String signature) {
+        if (!enabled || value == null || signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(value).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String issueOf(String counterKey) {
+        String[] parts = counterKey.split("\\" + SEPARATOR, 3);
+        return parts.length > 1 ? parts[1] : "";
+    }
+}
@@ -0,0 +1,158 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.SubscriberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox for verification mails of bulk-imported subscribers.
+ * An import only marks subscribers with verificationQueuedAt; this worker sends their mails in
+ * batches through the DomainSendScheduler on the BULK lane, so a large import neither holds the
+ * request open nor crowds out verification mails of regular sign-ups. Because the queue lives in
+ * the store, mails still pending survive a restart. Sent subscribers (and those verified or
+ * unsubscribed meanwhile) leave the queue. A failed send is retried with exponential backoff and
+ * dropped from the queue (logged) after subscribers.verification.max-attempts failures.
+ * Runs after each import and every subscribers.verification.poll-interval.
+ */
+@Service
+@Slf4j
+public class VerificationMailQueue {
+
+    private final SubscriberRepository repo;
+    private final EmailService emailService;
+    private final DomainSendScheduler sendScheduler;
+
+    @Value("${subscribers.verification.batch-size:500}")
+    private int batchSize;
+
+    @Value("${subscribers.verification.poll-interval:PT1M}")
+    private Duration pollInterval;
+
+    // A failed mail is retried after retry-backoff, doubling per failure, until max-attempts
+    @Value("${subscribers.verification.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${subscribers.verification.retry-backoff:PT5M}")
+    private Duration retryBackoff;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public VerificationMailQueue(SubscriberRepository repo, EmailService emailService, DomainSendScheduler sendScheduler) {
+        this.repo = repo;
+        this.emailService = emailService;
+        this.sendScheduler = sendScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        Thread t = new Thread(this::drain, "verification-mail-queue");
+        t.setDaemon(true);
+        t.start();
+        worker = t;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    /**
+     * Process the queue now instead of at the next poll
+     */
+    public void wake() {
+        wakeUp.release();
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                if (sendBatch() > 0) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Verification mail queue failed, retrying in {}: {}", pollInterval, e.getMessage());
+            }
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Send one batch of due mails; returns the number of subscribers that left the queue
+     */
+    int sendBatch() throws InterruptedException {
+        Instant now = Instant.now();
+        List<Subscriber> batch = repo.findQueuedForVerification(now, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<String> done = new ArrayList<>();
+        List<Subscriber> attempted = new ArrayList<>();
+        List<DomainSendScheduler.SendJob> jobs = new ArrayList<>();
+        Set<String> sent = ConcurrentHashMap.newKeySet();
+        for (Subscriber s : batch) {
+            if (s.isVerified() || s.isUnsubscribed() || s.getVerificationToken() == null) {
+                done.add(s.getId());
+                continue;
+            }
+            attempted.add(s);
+            jobs.add(new DomainSendScheduler.SendJob(s.getEmail(), () -> {
+                emailService.sendVerificationEmail(s.getEmail(), s.getVerificationToken(), MailDispatcher.Lane.BULK);
+                sent.add(s.getId());
+            }));
+        }
+
+        sendScheduler.sendAll(jobs);
+
+        done.addAll(sent);
+        int retried = 0;
+        int dropped = 0;
+        for (Subscriber s : attempted) {
+            if (sent.contains(s.getId())) {
+                continue;
+            }
+            int attempts = s.getVerificationAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                log.warn("Giving up on the verification mail to {} after {} failed attempts", s.getEmail(), attempts);
+                done.add(s.getId());
+                dropped++;
+            } else {
+                repo.recordVerificationFailure(s.getId(), now.plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20))));
+                retried++;
+            }
+        }
+        if (!done.isEmpty()) {
+            repo.clearVerificationQueued(done);
+        }
+        log.info("Verification mail queue: {} sent, {} no longer pending, {} failed and retried later, {} given up",
+                sent.size(), done.size() - sent.size() - dropped, retried, dropped);
+        return done.size();
+    }
+}
@@ -2,8 +2,17 @@ package com.newsy.newsy;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"newsdata.api.key=test",
+		"app.storage.embedded.path=target/test-data/newsy.mv.db",
+		"news.snapshot.path=target/test-data/news-snapshot.bin",
+		"tracking.wal-path=target/test-data/tracking.wal",
+		"newsdata.cache.mode=replay",
+		"newsdata.cache.dir=target/test-data/upstream-cache"
+})
+@ActiveProfiles("embedded")
 class NewsyApplicationTests {
 
 	@Test
@@ -0,0 +1,68 @@
+package com.newsy.newsy.controller;
+
+import com.newsy.newsy.dto.CategoryNewsResponse;
+import com.newsy.newsy.dto.NewsDTO;
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.service.CategoryFetchPlanner;
+import com.newsy.newsy.service.NewsFetchJobService;
+import com.newsy.newsy.service.NewsService;
+import com.newsy.newsy.service.NewsSnapshotStore;
+import com.newsy.newsy.service.RelatedArticlesIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NewsControllerTest {
+
+    private final NewsService newsService = mock(NewsService.class);
+    private final NewsSnapshotStore snapshotStore = mock(NewsSnapshotStore.class);
+    private NewsController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new NewsController(newsService, mock(NewsFetchJobService.class), mock(CategoryFetchPlanner.class),
+                snapshotStore, mock(RelatedArticlesIndex.class));
+        NewsDTO warm = new NewsDTO("1", "From snapshot", null, null, "https://example.com/1", null, "Technology", null, null, null);
+        Map<String, List<NewsDTO>> snapshot = Map.of("Technology", List.of(warm));
+        when(snapshotStore.servable()).thenReturn(Optional.of(snapshot));
+        when(snapshotStore.fallback()).thenReturn(Optional.of(snapshot));
+    }
+
+    @Test
+    void warmSnapshotServesCategoriesItHas() {
+        assertEquals(List.of("From snapshot"), titles("technology"));
+        verify(newsService, never()).getNewsByCategory("Technology");
+    }
+
+    @Test
+    void categoryMissingFromSnapshotComesFromStore() {
+        News live = new News("From store", null, "source", "https://example.com/2", null, "Sports", null, null, null);
+        when(newsService.getNewsByCategory("Sports")).thenReturn(List.of(live));
+
+        assertEquals(List.of("From store"), titles("sports"));
+    }
+
+    @Test
+    void storeFailureFallsBackOnlyForCategoriesInSnapshot() {
+        when(snapshotStore.servable()).thenReturn(Optional.empty());
+        when(newsService.getNewsByCategory("Technology")).thenThrow(new IllegalStateException("store down"));
+        when(newsService.getNewsByCategory("Sports")).thenThrow(new IllegalStateException("store down"));
+
+        assertEquals(List.of("From snapshot"), titles("technology"));
+        assertEquals(500, controller.getNewsByCategory("sports").getStatusCode().value());
+    }
+
+    private List<String> titles(String category) {
+        CategoryNewsResponse body = (CategoryNewsResponse) controller.getNewsByCategory(category).getBody();
+        return body.articles().stream().map(NewsDTO::title).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package com.newsy.newsy.repository.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.model.Subscriber;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddedDocumentStoreTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private MVStore store;
+    private EmbeddedNewsRepository news;
+    private EmbeddedSubscriberRepository subscribers;
+
+    @BeforeEach
+    void open() {
+        store = MVStore.open(null);
+        news = new EmbeddedNewsRepository(new EmbeddedDocumentStore<>(store, objectMapper, News.class));
+        subscribers = new EmbeddedSubscriberRepository(new EmbeddedDocumentStore<>(store, objectMapper, Subscriber.class));
+    }
+
+    @AfterEach
+    void close() {
+        store.close();
+    }
+
+    @Test
+    void exactLookupsAreCaseSensitive() {
+        subscribers.save(subscriber("Ann@Example.com"));
+
+        assertTrue(subscribers.findByEmail("Ann@Example.com").isPresent());
+        assertTrue(subscribers.findByEmail("ann@example.com").isEmpty());
+        assertTrue(subscribers.findByEmail("Ann@Example.co").isEmpty(), "a prefix is not a match");
+    }
+
+    @Test
+    void ignoreCaseLookupMatchesAnyCase() {
+        news.saveAll(List.of(article("Technology", 1), article("technology", 2), article("Tech", 3)));
+
+        assertEquals(2, news.findTop5ByCategoryIgnoreCase("TECHNOLOGY").size());
+        assertEquals(1, news.findTop5ByCategoryIgnoreCaseOrderByFetchedAtDescPublishedAtDesc("Technology").size());
+    }
+
+    @Test
+    void deleteByCategoryInRemovesOnlyThoseCategoriesAndTheirIndexEntries() {
+        news.saveAll(List.of(article("sports", 1), article("sports", 2), article("business", 3), article("education", 4)));
+
+        news.deleteByCategoryIn(Set.of("sports", "business"));
+
+        assertEquals(1, news.count());
+        assertTrue(news.findTop5ByCategoryIgnoreCase("sports").isEmpty());
+        assertTrue(news.findTop5ByCategoryIgnoreCase("business").isEmpty());
+        assertEquals(1, news.findTop5ByCategoryIgnoreCase("education").size());
+    }
+
+    @Test
+    void updateMovesIndexEntries() {
+        Subscriber s = subscribers.save(subscriber("a@example.com"));
+        s.setEmail("b@example.com");
+        subscribers.save(s);
+
+        assertTrue(subscribers.findByEmail("a@example.com").isEmpty());
+        assertEquals(s.getId(), subscribers.findByEmail("b@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    void instantIndexIsInTimeOrder() {
+        Instant base = Instant.parse("2026-10-19T10:00:20Z");
+        // Saved out of order; the whole second must sort before its fractions
+        Subscriber later = queued("later@example.com", base.plusMillis(123));
+        Subscriber first = queued("first@example.com", base);
+        Subscriber earlier = queued("earlier@example.com", base.minusNanos(1));
+        Subscriber last = queued("last@example.com", base.plusSeconds(1));
+        subscribers.save(later);
+        subscribers.save(last);
+        subscribers.save(first);
+        subscribers.save(earlier);
+        subscribers.save(subscriber("not-queued@example.com"));
+
+        List<String> order = subscribers.findQueuedForVerification(base.plusSeconds(60), 10).stream().map(Subscriber::getEmail).toList();
+        assertEquals(List.of("earlier@example.com", "first@example.com", "later@example.com", "last@example.com"), order);
+
+        subscribers.clearVerificationQueued(List.of(first.getId()));
+        assertEquals("earlier@example.com", subscribers.findQueuedForVerification(base.plusSeconds(60), 1).get(0).getEmail());
+        assertEquals(3, subscribers.findQueuedForVerification(base.plusSeconds(60), 10).size());
+        assertEquals(1, subscribers.findQueuedForVerification(base, 10).size(), "later ones are not due yet");
+    }
+
+    @Test
+    void upsertByEmailInsertsNewAndMergesExisting() {
+        Subscriber stored = subscriber("a@example.com");
+        stored.setVerified(true);
+        subscribers.save(stored);
+
+        Subscriber incoming = subscriber("a@example.com");
+        incoming.setCategories(List.of("business"));
+        var result = subscribers.upsertByEmail(List.of(incoming, subscriber("b@example.com")));
+
+        assertEquals(1, result.inserted().size());
+        assertEquals(1, result.updated());
+        Subscriber merged = subscribers.findByEmail("a@example.com").orElseThrow();
+        assertTrue(merged.isVerified(), "verification state is kept");
+        assertEquals(List.of("business"), merged.getCategories());
+        assertEquals(2, subscribers.count());
+    }
+
+    private static Subscriber subscriber(String email) {
+        Subscriber s = new Subscriber();
+        s.setEmail(email);
+        s.setCategories(List.of("technology"));
+        return s;
+    }
+
+    private static Subscriber queued(String email, Instant at) {
+        Subscriber s = subscriber(email);
+        s.setVerificationQueuedAt(at);
+        return s;
+    }
+
+    private static News article(String category, int n) {
+        return new News("Title " + n, "Author", "source", "https://example.com/" + n,
+                LocalDateTime.now().minusHours(n), category, "Description", null, null);
+    }
+}
@@ -0,0 +1,190 @@
+package com.newsy.newsy.scheduler;
+
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.service.DomainSendScheduler;
+import com.newsy.newsy.service.EmailService;
+import com.newsy.newsy.service.NewsService;
+import com.newsy.newsy.service.NewsletterMimeTemplate;
+import com.newsy.newsy.service.RelatedArticlesIndex;
+import com.newsy.newsy.service.SubscriberIndex.Audience;
+import com.newsy.newsy.service.SubscriberIndex.Member;
+import com.newsy.newsy.service.SubscriptionService;
+import com.newsy.newsy.service.TrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NewsletterSchedulerTest {
+
+    private NewsletterScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new NewsletterScheduler(null, null, null, null, null, null);
+        ReflectionTestUtils.setField(scheduler, "defaultTimezone", "UTC");
+        ReflectionTestUtils.setField(scheduler, "defaultDeliveryHour", 9);
+        ReflectionTestUtils.setField(scheduler, "retryBackoff", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(scheduler, "startedAt", Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void slotFollowsSubscriberLocalTime() {
+        Member tokyo = subscriber("tokyo", "Asia/Tokyo", 7, "2026-03-09");
+        Member newYork = subscriber("new-york", "America/New_York", 7, "2026-03-09");
+        Instant tokyoSlot = slot(tokyo, LocalDate.parse("2026-03-10"));
+        Instant newYorkSlot = slot(newYork, LocalDate.parse("2026-03-10"));
+
+        assertFalse(scheduler.isDue(tokyo, tokyoSlot.minusSeconds(1)));
+        assertTrue(scheduler.isDue(tokyo, tokyoSlot));
+        // 07:xx in Tokyo is still the previous evening in New York
+        assertFalse(scheduler.isDue(newYork, tokyoSlot));
+        assertTrue(scheduler.isDue(newYork, newYorkSlot));
+    }
+
+    @Test
+    void localDateDecidesWhetherTodaysIssueWasSent() {
+        // 2026-03-10 in Auckland while UTC is still on 2026-03-09
+        Member auckland = subscriber("auckland", "Pacific/Auckland", 6, "2026-03-09");
+        Instant slot = slot(auckland, LocalDate.parse("2026-03-10"));
+        assertTrue(scheduler.isDue(auckland, slot.plusSeconds(60)));
+
+        Member sent = subscriber("auckland", "Pacific/Auckland", 6, "2026-03-10");
+        assertFalse(scheduler.isDue(sent, slot.plusSeconds(60)));
+    }
+
+    @Test
+    void unknownTimezoneFallsBackToDefault() {
+        Member s = subscriber("nowhere", "Not/AZone", 9, "2026-03-09");
+        Instant slot = slot(subscriber("nowhere", "UTC", 9, null), LocalDate.parse("2026-03-10"));
+        assertFalse(scheduler.isDue(s, slot.minusSeconds(1)));
+        assertTrue(scheduler.isDue(s, slot));
+    }
+
+    @Test
+    void neverSentIsOnlyDueForSlotsAfterStartup() {
+        Member s = subscriber("fresh", "Europe/Berlin", 8, null);
+        Instant slot = slot(s, LocalDate.parse("2026-03-10"));
+        ReflectionTestUtils.setField(scheduler, "startedAt", slot.plusSeconds(3600));
+
+        // Slot passed before the deploy: waits for tomorrow instead of joining a burst
+        assertFalse(scheduler.isDue(s, slot.plusSeconds(7200)));
+        Instant tomorrow = slot(s, LocalDate.parse("2026-03-11"));
+        assertTrue(scheduler.isDue(s, tomorrow));
+    }
+
+    @Test
+    void neverSentSignedUpAfterSlotWaitsForTomorrow() {
+        Instant slot = slot(subscriber("late", "UTC", 9, null), LocalDate.parse("2026-03-10"));
+        Member late = new Member("late", "late@example.com", "token", "UTC", 9, null, slot.plusSeconds(60));
+        assertFalse(scheduler.isDue(late, slot.plusSeconds(120)));
+
+        Member early = new Member("late", "late@example.com", "token", "UTC", 9, null, slot.minusSeconds(60));
+        assertTrue(scheduler.isDue(early, slot.plusSeconds(120)));
+    }
+
+    @Test
+    void failedAttemptWaitsForBackoff() {
+        Member s = subscriber("flaky", "UTC", 9, "2026-03-09");
+        Instant slot = slot(s, LocalDate.parse("2026-03-10"));
+        ReflectionTestUtils.invokeMethod(scheduler, "recordFailure", s, slot);
+
+        assertFalse(scheduler.isDue(s, slot.plus(Duration.ofMinutes(29))));
+        assertTrue(scheduler.isDue(s, slot.plus(Duration.ofMinutes(30))));
+
+        ReflectionTestUtils.invokeMethod(scheduler, "recordFailure", s, slot.plus(Duration.ofMinutes(30)));
+        assertFalse(scheduler.isDue(s, slot.plus(Duration.ofMinutes(89))));
+        assertTrue(scheduler.isDue(s, slot.plus(Duration.ofMinutes(90))));
+    }
+
+    @Test
+    void runKilledMidwayDoesNotResendFinishedRecipients() throws Exception {
+        SubscriptionService subscriptions = mock(SubscriptionService.class);
+        NewsService news = mock(NewsService.class);
+        TrackingService tracking = mock(TrackingService.class);
+        DomainSendScheduler sendScheduler = mock(DomainSendScheduler.class);
+        EmailService email = mock(EmailService.class);
+        News article = new News("Title", null, "source", "https://example.com/a", null, "Sports", "Summary", null, null);
+        when(news.fetchTopArticles(anyString(), anyInt())).thenReturn(List.of(article));
+        when(tracking.clickUrl(any(), anyString())).thenReturn("https://newsy.example/t");
+        when(email.prepareNewsletter(anyString(), any(), any())).thenReturn(mock(NewsletterMimeTemplate.class));
+        Map<String, String> saved = new HashMap<>();
+        doAnswer(inv -> {
+            saved.putAll(inv.getArgument(0));
+            return null;
+        }).when(subscriptions).markNewsletterSent(anyMap());
+
+        // The process dies after 25 of 40 sends: nothing after the sends runs
+        Map<String, String> savedWhenKilled = new HashMap<>();
+        when(sendScheduler.sendAll(anyList())).thenAnswer(inv -> {
+            List<DomainSendScheduler.SendJob> jobs = inv.getArgument(0);
+            for (DomainSendScheduler.SendJob job : jobs.subList(0, 25)) {
+                job.task().send();
+            }
+            savedWhenKilled.putAll(saved);
+            throw new IllegalStateException("killed");
+        });
+
+        NewsletterScheduler run = new NewsletterScheduler(subscriptions, email, news, sendScheduler, tracking,
+                mock(RelatedArticlesIndex.class));
+        ReflectionTestUtils.setField(run, "defaultTimezone", "UTC");
+        ReflectionTestUtils.setField(run, "defaultDeliveryHour", 9);
+        ReflectionTestUtils.setField(run, "retryBackoff", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(run, "startedAt", Instant.parse("2026-01-01T00:00:00Z"));
+        ReflectionTestUtils.setField(run, "maxArticlesPerMail", 8);
+        ReflectionTestUtils.setField(run, "markBatch", 5);
+        List<Member> members = IntStream.range(0, 40)
+                .mapToObj(i -> subscriber("member-" + i, "UTC", 9, "2026-03-09"))
+                .toList();
+        Instant now = Instant.parse("2026-03-10T10:30:00Z");
+
+        assertThrows(IllegalStateException.class, () -> ReflectionTestUtils.invokeMethod(run, "send",
+                List.of(new Audience(List.of("sports"), members)), now));
+
+        // After the restart, subscribers carry the dates saved before the kill
+        List<String> dueAgain = new ArrayList<>();
+        for (Member m : members) {
+            Member reloaded = new Member(m.id(), m.email(), m.token(), m.timezone(), m.deliveryHour(),
+                    savedWhenKilled.getOrDefault(m.id(), m.lastNewsletterDate()), m.createdAt());
+            if (run.isDue(reloaded, now)) {
+                dueAgain.add(m.id());
+            }
+        }
+        assertEquals(members.subList(25, 40).stream().map(Member::id).toList(), dueAgain);
+    }
+
+    private static Member subscriber(String id, String timezone, int hour, String lastNewsletterDate) {
+        return new Member(id, id + "@example.com", "token", timezone, hour, lastNewsletterDate,
+                Instant.parse("2025-12-01T00:00:00Z"));
+    }
+
+    private static Instant slot(Member s, LocalDate date) {
+        int minute = Math.floorMod(s.id().hashCode(), 60);
+        return LocalDateTime.of(date.getYear(), date.getMonth(), date.getDayOfMonth(), s.deliveryHour(), minute)
+                .atZone(ZoneId.of(s.timezone()))
+                .toInstant();
+    }
+}
@@ -0,0 +1,129 @@
+package com.newsy.newsy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryFetchPlannerTest {
+
+    private static final List<String> CATEGORIES = List.of("technology", "sports", "business", "education", "entertainment");
+
+    private CategoryFetchPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        NewsService newsService = mock(NewsService.class);
+        when(newsService.getCategories()).thenReturn(CATEGORIES);
+        // Nothing stored yet: every category is due right away, last fetched one initial interval ago
+        when(newsService.getLastFetchedAt(anyString())).thenReturn(Optional.empty());
+        planner = new CategoryFetchPlanner(newsService);
+        ReflectionTestUtils.setField(planner, "minInterval", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(planner, "maxInterval", Duration.ofHours(24));
+        ReflectionTestUtils.setField(planner, "initialInterval", Duration.ofHours(6));
+        ReflectionTestUtils.setField(planner, "targetNewPerFetch", 3.0);
+        ReflectionTestUtils.setField(planner, "dailyBudget", 100);
+    }
+
+    @Test
+    void intervalTargetsNewArticlesPerFetch() {
+        planner.dueCategories(Instant.now());
+        // 6 new articles over 6 hours = 1 per hour, so 3 per fetch means every 3 hours
+        planner.recordResults(List.of("technology"), Map.of("technology", 6));
+
+        assertEquals(180L, category("technology").get("intervalMinutes"));
+        assertEquals(6, category("technology").get("lastNewArticles"));
+    }
+
+    @Test
+    void quietCategoryBacksOffUpToMaximum() {
+        planner.dueCategories(Instant.now());
+        planner.recordResults(List.of("sports"), Map.of("sports", 0));
+        assertEquals(720L, category("sports").get("intervalMinutes"));
+
+        planner.recordResults(List.of("sports"), Map.of("sports", 0));
+        assertEquals(1440L, category("sports").get("intervalMinutes"));
+        planner.recordResults(List.of("sports"), Map.of("sports", 0));
+        assertEquals(1440L, category("sports").get("intervalMinutes"));
+    }
+
+    @Test
+    void failedFetchKeepsIntervalAndRetriesSoon() {
+        Instant now = Instant.now();
+        planner.dueCategories(now);
+        planner.recordResults(List.of("business"), Map.of());
+
+        Map<String, Object> business = category("business");
+        assertEquals(360L, business.get("intervalMinutes"));
+        assertEquals(1, business.get("consecutiveFailures"));
+        Instant retry = (Instant) business.get("nextFetchAt");
+        assertTrue(!retry.isBefore(now.plus(Duration.ofMinutes(30))) && retry.isBefore(now.plus(Duration.ofMinutes(31))));
+
+        planner.recordResults(List.of("business"), Map.of("business", 3));
+        assertEquals(0, category("business").get("consecutiveFailures"));
+    }
+
+    @Test
+    void repeatedFailuresBackOffUpToMaximum() {
+        planner.dueCategories(Instant.now());
+        // 30 min, 1 h, 2 h, ... capped at the 24 hour maximum
+        long[] expectedMinutes = {30, 60, 120, 240, 480, 960, 1440, 1440};
+        for (long expected : expectedMinutes) {
+            Instant before = Instant.now();
+            planner.recordResults(List.of("education"), Map.of());
+            Instant retry = (Instant) category("education").get("nextFetchAt");
+            assertEquals(expected, Duration.between(before, retry).toMinutes());
+        }
+        assertEquals(8, category("education").get("consecutiveFailures"));
+
+        planner.recordResults(List.of("education"), Map.of("education", 3));
+        planner.recordResults(List.of("education"), Map.of());
+        Duration delay = Duration.between(Instant.now(), (Instant) category("education").get("nextFetchAt"));
+        assertTrue(delay.compareTo(Duration.ofMinutes(31)) < 0, "a success resets the backoff: " + delay);
+    }
+
+    @Test
+    void dailyBudgetLimitsDispatchAndRefundsAreReusable() {
+        ReflectionTestUtils.setField(planner, "dailyBudget", 2);
+        Instant now = Instant.now();
+
+        List<String> first = planner.dueCategories(now);
+        assertEquals(2, first.size());
+        assertEquals(List.of(), planner.dueCategories(now));
+        assertEquals(2, planner.snapshot().get("usedLast24h"));
+
+        planner.refund(first.subList(0, 1));
+        assertEquals(1, planner.dueCategories(now).size());
+        // Charges older than a day no longer count
+        assertEquals(2, planner.dueCategories(now.plus(Duration.ofHours(25))).size());
+    }
+
+    @Test
+    void intervalsStretchWhenProjectedCallsExceedBudget() {
+        ReflectionTestUtils.setField(planner, "dailyBudget", 40);
+        planner.dueCategories(Instant.now());
+        // Every category at the 30 minute floor would need 5 * 48 = 240 calls a day
+        Map<String, Integer> busy = Map.of("technology", 100, "sports", 100, "business", 100,
+                "education", 100, "entertainment", 100);
+        planner.recordResults(CATEGORIES, busy);
+
+        assertEquals(6.0, (double) planner.snapshot().get("budgetStretch"), 1e-9);
+        assertEquals(180L, category("technology").get("intervalMinutes"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> category(String name) {
+        return (Map<String, Object>) ((Map<String, Object>) planner.snapshot().get("categories")).get(name);
+    }
+}
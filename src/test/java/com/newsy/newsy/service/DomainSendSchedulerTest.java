@@ -0,0 +1,104 @@
+package com.newsy.newsy.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DomainSendSchedulerTest {
+
+    private DomainSendScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void smallDomainIsNotStuckBehindLargeOne() throws Exception {
+        scheduler = new DomainSendScheduler(1, 1, 1_000_000);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<DomainSendScheduler.SendJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            jobs.add(job("user" + i + "@gmail.com", order));
+        }
+        jobs.add(job("a@small.example", order));
+        jobs.add(job("b@small.example", order));
+
+        assertEquals(22, scheduler.sendAll(jobs));
+        // Round-robin: the two small.example sends go out among the first four
+        assertTrue(order.subList(0, 4).containsAll(List.of("a@small.example", "b@small.example")), order.toString());
+    }
+
+    @Test
+    void perDomainConcurrencyIsCapped() throws Exception {
+        scheduler = new DomainSendScheduler(8, 2, 1_000_000);
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> peak = new ConcurrentHashMap<>();
+        List<DomainSendScheduler.SendJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            String domain = i % 2 == 0 ? "gmail.com" : "yahoo.com";
+            jobs.add(new DomainSendScheduler.SendJob("user" + i + "@" + domain, () -> {
+                int now = running.computeIfAbsent(domain, d -> new AtomicInteger()).incrementAndGet();
+                peak.computeIfAbsent(domain, d -> new AtomicInteger()).accumulateAndGet(now, Math::max);
+                Thread.sleep(20);
+                running.get(domain).decrementAndGet();
+            }));
+        }
+
+        assertEquals(24, scheduler.sendAll(jobs));
+        assertEquals(2, peak.get("gmail.com").get());
+        assertEquals(2, peak.get("yahoo.com").get());
+    }
+
+    @Test
+    void perDomainRateSpacesSends() throws Exception {
+        // 600 per minute = one send every 100 ms per domain
+        scheduler = new DomainSendScheduler(4, 4, 600);
+        List<Long> sentAt = Collections.synchronizedList(new ArrayList<>());
+        List<DomainSendScheduler.SendJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            jobs.add(new DomainSendScheduler.SendJob("user" + i + "@gmail.com", () -> sentAt.add(System.nanoTime())));
+        }
+
+        long start = System.nanoTime();
+        assertEquals(5, scheduler.sendAll(jobs));
+        // The fifth send is dispatched four spacings after the first
+        assertTrue(Collections.max(sentAt) - start >= 400_000_000L);
+    }
+
+    @Test
+    void failedSendsAreCountedAndIdleLanesDropped() throws Exception {
+        scheduler = new DomainSendScheduler(2, 2, 1_000_000);
+        List<DomainSendScheduler.SendJob> jobs = List.of(
+                new DomainSendScheduler.SendJob("ok@a.example", () -> {
+                }),
+                new DomainSendScheduler.SendJob("bad@b.example", () -> {
+                    throw new IllegalStateException("relay refused");
+                }));
+
+        assertEquals(1, scheduler.sendAll(jobs));
+        Map<String, Map<String, Object>> stats = scheduler.stats();
+        assertEquals(1L, stats.get("a.example").get("sent"));
+        assertEquals(1L, stats.get("b.example").get("failed"));
+        assertTrue(((List<?>) ReflectionTestUtils.getField(scheduler, "ring")).isEmpty());
+
+        Map<?, ?> lanes = (Map<?, ?>) ReflectionTestUtils.getField(scheduler, "lanes");
+        long longAgo = System.nanoTime() - DomainSendScheduler.LANE_RETENTION.toNanos() - 1;
+        ReflectionTestUtils.setField(lanes.get("a.example"), "lastActiveAt", longAgo);
+        assertEquals(List.of("b.example"), List.copyOf(scheduler.stats().keySet()));
+    }
+
+    private static DomainSendScheduler.SendJob job(String recipient, List<String> order) {
+        return new DomainSendScheduler.SendJob(recipient, () -> order.add(recipient));
+    }
+}
@@ -0,0 +1,93 @@
+package com.newsy.newsy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestStageTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private IngestStage<String> stage;
+
+    @AfterEach
+    void tearDown() {
+        stage.stop();
+    }
+
+    @Test
+    void drainsQueuedItemsInBatches() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        List<String> categories = List.of("a", "b", "c", "d", "e");
+        IngestRun run = new IngestRun(categories, c -> { });
+        stage = new IngestStage<>("test", 1, 8, 3, batch -> {
+            release.await();
+            batchSizes.add(batch.size());
+            batch.forEach(item -> {
+                item.run().recordNewArticles(item.category(), item.payload().length());
+                item.run().complete(item.category());
+            });
+        }, registry);
+        stage.start();
+
+        for (String category : categories) {
+            stage.submit(new IngestStage.Item<>(run, category, category + category));
+        }
+        release.countDown();
+
+        assertTrue(run.await(5, TimeUnit.SECONDS));
+        assertEquals(5, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 3), batchSizes.toString());
+        assertEquals(2, run.getNewArticles().get("c"));
+    }
+
+    @Test
+    void failedBatchCompletesEveryCategoryWithoutResult() throws Exception {
+        List<String> done = Collections.synchronizedList(new ArrayList<>());
+        IngestRun run = new IngestRun(List.of("a", "b"), done::add);
+        stage = new IngestStage<>("failing", 1, 8, 2, batch -> {
+            throw new IllegalStateException("store down");
+        }, registry);
+
+        stage.submit(new IngestStage.Item<>(run, "a", "x"));
+        stage.submit(new IngestStage.Item<>(run, "b", "y"));
+        stage.start();
+
+        assertTrue(run.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b"), done.stream().sorted().toList());
+        assertTrue(run.getNewArticles().isEmpty());
+        assertEquals(2.0, registry.counter("newsy.ingest.items", "stage", "failing", "outcome", "failed").count());
+    }
+
+    @Test
+    void itemsOfCancelledRunAreDropped() throws Exception {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        IngestRun cancelled = new IngestRun(List.of("a"), c -> { });
+        IngestRun live = new IngestRun(List.of("b"), c -> { });
+        stage = new IngestStage<>("cancel", 1, 8, 1, batch -> batch.forEach(item -> {
+            handled.add(item.category());
+            item.run().complete(item.category());
+        }), registry);
+
+        cancelled.cancel();
+        cancelled.recordNewArticles("a", 3);
+        stage.submit(new IngestStage.Item<>(cancelled, "a", "x"));
+        stage.submit(new IngestStage.Item<>(live, "b", "y"));
+        stage.start();
+
+        assertTrue(live.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("b"), handled);
+        assertFalse(cancelled.await(0, TimeUnit.SECONDS));
+        assertTrue(cancelled.getNewArticles().isEmpty());
+    }
+}
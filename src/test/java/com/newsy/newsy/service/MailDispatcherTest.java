@@ -0,0 +1,141 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.service.MailDispatcher.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class MailDispatcherTest {
+
+    @Test
+    void busyLanesShareConnectionsByWeight() throws Exception {
+        MailDispatcher dispatcher = stopped(Duration.ofSeconds(10));
+        for (int i = 0; i < 10; i++) {
+            queue(dispatcher, Lane.TRANSACTIONAL);
+            queue(dispatcher, Lane.BULK);
+        }
+        awaitQueued(dispatcher, 20);
+
+        List<Lane> order = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Object next = ReflectionTestUtils.invokeMethod(dispatcher, "pollNext");
+            order.add((Lane) ReflectionTestUtils.getField(next, "lane"));
+            ((CompletableFuture<?>) ReflectionTestUtils.getField(next, "result")).complete(null);
+        }
+
+        // Weights 4:1, interleaved rather than in runs
+        assertEquals(List.of(Lane.TRANSACTIONAL, Lane.TRANSACTIONAL, Lane.BULK, Lane.TRANSACTIONAL, Lane.TRANSACTIONAL,
+                Lane.TRANSACTIONAL, Lane.TRANSACTIONAL, Lane.BULK, Lane.TRANSACTIONAL, Lane.TRANSACTIONAL), order);
+    }
+
+    @Test
+    void bulkNeverTakesReservedConnections() throws Exception {
+        MailDispatcher dispatcher = stopped(Duration.ofSeconds(10));
+        queue(dispatcher, Lane.BULK);
+        awaitQueued(dispatcher, 1);
+
+        // Three connections, one reserved: two bulk sends in flight is the limit
+        ReflectionTestUtils.setField(dispatcher, "activeBulk", 2);
+        assertNull(ReflectionTestUtils.invokeMethod(dispatcher, "pollNext"));
+        ReflectionTestUtils.setField(dispatcher, "activeBulk", 1);
+        Object next = ReflectionTestUtils.invokeMethod(dispatcher, "pollNext");
+        assertEquals(Lane.BULK, ReflectionTestUtils.getField(next, "lane"));
+        ((CompletableFuture<?>) ReflectionTestUtils.getField(next, "result")).complete(null);
+    }
+
+    @Test
+    void sendFailsAndIsWithdrawnAfterTimeout() throws Exception {
+        MailDispatcher dispatcher = stopped(Duration.ofMillis(100));
+
+        assertThrows(MessagingException.class, () -> dispatcher.send(Lane.TRANSACTIONAL, message()));
+        assertEquals(0, queued(dispatcher));
+    }
+
+    @Test
+    void errorFailsTheSendButKeepsSendersRunning() throws Exception {
+        JavaMailSender sender = mock(JavaMailSender.class);
+        doThrow(new LinkageError("broken mail stack")).doThrow(new LinkageError("broken mail stack")).doNothing()
+                .when(sender).send(any(MimeMessage.class));
+        MailDispatcher dispatcher = new MailDispatcher(sender, new SimpleMeterRegistry(), 2, 1, 4, 1, Duration.ofSeconds(5));
+        try {
+            MessagingException failed = assertThrows(MessagingException.class, () -> dispatcher.send(Lane.TRANSACTIONAL, message()));
+            assertInstanceOf(ExecutionException.class, failed.getCause());
+            assertThrows(MessagingException.class, () -> dispatcher.send(Lane.TRANSACTIONAL, message()));
+            // Both connections hit an Error; either sender still delivers the next message
+            dispatcher.send(Lane.TRANSACTIONAL, message());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * A dispatcher whose sender threads have exited, so queued mail stays put for inspection
+     */
+    @SuppressWarnings("unchecked")
+    private static MailDispatcher stopped(Duration sendTimeout) throws InterruptedException {
+        MailDispatcher dispatcher = new MailDispatcher(mock(JavaMailSender.class), new SimpleMeterRegistry(),
+                3, 1, 4, 1, sendTimeout);
+        dispatcher.shutdown();
+        for (Thread sender : (List<Thread>) ReflectionTestUtils.getField(dispatcher, "senders")) {
+            sender.join(5000);
+            assertFalse(sender.isAlive());
+        }
+        return dispatcher;
+    }
+
+    private static void queue(MailDispatcher dispatcher, Lane lane) {
+        Thread.ofVirtual().start(() -> {
+            try {
+                dispatcher.send(lane, message());
+            } catch (MessagingException ignored) {
+                // The test completes or abandons the future
+            }
+        });
+    }
+
+    private static void awaitQueued(MailDispatcher dispatcher, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (queued(dispatcher) < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, queued(dispatcher));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int queued(MailDispatcher dispatcher) {
+        ReentrantLock lock = (ReentrantLock) ReflectionTestUtils.getField(dispatcher, "lock");
+        lock.lock();
+        try {
+            return ((Map<Lane, Deque<?>>) ReflectionTestUtils.getField(dispatcher, "queues")).values().stream()
+                    .mapToInt(Deque::size).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static MimeMessage message() {
+        return new MimeMessage((Session) null);
+    }
+}
@@ -0,0 +1,99 @@
+package com.newsy.newsy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NewsApiResponseCacheTest {
+
+    private static final String API_URL = "https://newsdata.io/api/1/latest";
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void keyIgnoresApiKeyAndParameterOrder() {
+        String key = NewsApiResponseCache.key(URI.create(API_URL + "?apikey=secret&language=en&category=sports"));
+
+        assertEquals("newsdata.io/api/1/latest?category=sports&language=en", key);
+        assertEquals(key, NewsApiResponseCache.key(URI.create("https://NewsData.IO/api/1/latest?category=sports&APIKEY=other&language=en")));
+        assertEquals("newsdata.io/api/1/latest?category=business,sports",
+                NewsApiResponseCache.key(URI.create(API_URL + "?category=sports&category=business")));
+        assertEquals("newsdata.io/api/1/latest?q=", NewsApiResponseCache.key(URI.create(API_URL + "?q")));
+        assertNotEquals(key, NewsApiResponseCache.key(URI.create(API_URL + "?language=en&category=business")));
+    }
+
+    @Test
+    void recordedResponseIsServedWithoutNetwork() throws Exception {
+        NewsApiResponseCache recorder = cache("record");
+        assertEquals("{\"n\":1}", body(recorder.intercept(get("?apikey=a&category=sports"), new byte[0], this::upstream)));
+
+        // Same query under another key, and a replay-only instance, both hit the recording
+        assertEquals("{\"n\":1}", body(recorder.intercept(get("?category=sports&apikey=b"), new byte[0], this::upstream)));
+        assertEquals("{\"n\":1}", body(cache("replay").intercept(get("?category=sports"), new byte[0], this::upstream)));
+        assertEquals(1, calls.get());
+        assertEquals(2.0, registry.counter("newsy.upstream.cache", "outcome", "hit").count());
+
+        try (var files = Files.list(dir)) {
+            String recording = Files.readString(files.findFirst().orElseThrow(), StandardCharsets.UTF_8);
+            assertFalse(recording.contains("apikey"));
+        }
+        assertThrows(IOException.class, () -> cache("replay").intercept(get("?category=business"), new byte[0], this::upstream));
+    }
+
+    @Test
+    void failedResponseIsNotRecorded() throws Exception {
+        NewsApiResponseCache recorder = cache("record");
+        ClientHttpRequestExecution failing = (request, body) -> {
+            calls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS);
+        };
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, recorder.intercept(get("?category=sports"), new byte[0], failing).getStatusCode());
+        recorder.intercept(get("?category=sports"), new byte[0], failing);
+        assertEquals(2, calls.get());
+    }
+
+    private NewsApiResponseCache cache(String mode) {
+        return new NewsApiResponseCache(registry, mode, dir, Duration.ofMinutes(10), API_URL);
+    }
+
+    private static MockClientHttpRequest get(String query) {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create(API_URL + query));
+    }
+
+    private ClientHttpResponse upstream(HttpRequest request, byte[] body) {
+        MockClientHttpResponse response = new MockClientHttpResponse(
+                ("{\"n\":" + calls.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response;
+    }
+
+    private static String body(ClientHttpResponse response) throws IOException {
+        return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.dto.NewsDTO;
+import com.newsy.newsy.repository.NewsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class NewsSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenSnapshotIsServedAfterRestart() {
+        Map<String, List<NewsDTO>> news = new LinkedHashMap<>();
+        news.put("Technology", List.of(
+                article("1", "Chips get smaller", LocalDateTime.of(2026, 3, 10, 8, 15, 30, 123_456_789)),
+                new NewsDTO("2", "Ünïcödé — 日本語", null, null, null, null, "Technology", null, null, null)));
+        news.put("Sports", List.of());
+        news.put("Business", List.of(article("3", "Markets rally", null)));
+        store().write(news);
+
+        NewsSnapshotStore restarted = store();
+        restarted.load();
+
+        Map<String, List<NewsDTO>> served = restarted.servable().orElseThrow();
+        assertEquals(news, served);
+        assertEquals(List.of("Technology", "Sports", "Business"), List.copyOf(served.keySet()));
+        assertEquals(news, restarted.fallback().orElseThrow());
+    }
+
+    @Test
+    void staleOrForeignSnapshotIsIgnored() throws Exception {
+        store().write(Map.of("Technology", List.of(article("1", "Chips get smaller", null))));
+        NewsSnapshotStore stale = store();
+        ReflectionTestUtils.setField(stale, "maxAge", Duration.ofMillis(-1));
+        stale.load();
+        assertTrue(stale.servable().isEmpty());
+
+        Files.write(dir.resolve("news-snapshot.bin"), new byte[]{'N', 'O', 'P', 'E', 0, 1});
+        NewsSnapshotStore foreign = store();
+        foreign.load();
+        assertTrue(foreign.fallback().isEmpty());
+    }
+
+    @Test
+    void liveStoreTakesOverAfterWarmUp() {
+        store().write(Map.of("Technology", List.of(article("1", "Chips get smaller", null))));
+        NewsSnapshotStore restarted = store();
+        restarted.load();
+
+        ReflectionTestUtils.setField(restarted, "liveReady", true);
+        assertTrue(restarted.servable().isPresent(), "still warming up");
+        ReflectionTestUtils.setField(restarted, "warmUntil", Instant.now().minusSeconds(1));
+        assertTrue(restarted.servable().isEmpty());
+        assertTrue(restarted.fallback().isPresent());
+    }
+
+    private NewsSnapshotStore store() {
+        NewsSnapshotStore store = new NewsSnapshotStore(mock(NewsRepository.class));
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "path", dir.resolve("news-snapshot.bin"));
+        ReflectionTestUtils.setField(store, "maxAge", Duration.ofDays(2));
+        ReflectionTestUtils.setField(store, "warmUp", Duration.ofSeconds(30));
+        return store;
+    }
+
+    private static NewsDTO article(String id, String title, LocalDateTime publishedAt) {
+        return new NewsDTO(id, title, "Author", "Source", "https://example.com/" + id, publishedAt,
+                "Technology", "Description of " + title, "https://example.com/" + id + ".png", null);
+    }
+}
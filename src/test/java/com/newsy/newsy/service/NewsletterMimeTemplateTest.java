@@ -0,0 +1,88 @@
+package com.newsy.newsy.service;
+
+import jakarta.mail.Message;
+import jakarta.mail.Multipart;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NewsletterMimeTemplateTest {
+
+    private static final String TOKEN = NewsletterMimeTemplate.TOKEN_PLACEHOLDER;
+
+    private final Session session = Session.getInstance(new Properties());
+
+    @Test
+    void tokenIsSplicedIntoEncodedBody() throws Exception {
+        // Placeholders mid-line, right after a long line, next to '=' and non-ASCII text, and at the very end
+        String html = "<html><body><p>Grüße aus München — " + "x".repeat(90) + "</p>\r\n"
+                + "<a href=\"https://newsy.example/unsubscribe?token=" + TOKEN + "&amp;src=mail\">Abmelden</a>\r\n"
+                + "<img src=\"https://newsy.example/open?t=" + TOKEN + "\">" + "y".repeat(74) + TOKEN;
+        NewsletterMimeTemplate template = new NewsletterMimeTemplate(html, "Heute: Nachrichten ✓",
+                new InternetAddress("news@newsy.example", "Newsy"));
+        String token = "tok=en&" + "z".repeat(80);
+
+        MimeMessage parsed = roundTrip(template.newMessage(session, "reader@example.com", token));
+
+        Multipart body = (Multipart) parsed.getContent();
+        assertEquals(1, body.getCount());
+        assertEquals(template.html(token), body.getBodyPart(0).getContent());
+        assertEquals("Heute: Nachrichten ✓", parsed.getSubject());
+        assertEquals("reader@example.com", ((InternetAddress) parsed.getRecipients(Message.RecipientType.TO)[0]).getAddress());
+        assertTrue(parsed.getMessageID().endsWith("@newsy.example>"));
+    }
+
+    @Test
+    void encodedLinesStayWithinLimit() throws Exception {
+        String html = "<p>" + "ä".repeat(60) + TOKEN + "=".repeat(60) + "</p>";
+        NewsletterMimeTemplate template = new NewsletterMimeTemplate(html, "Subject",
+                new InternetAddress("news@newsy.example"));
+
+        byte[] raw = bytes(template.newMessage(session, "reader@example.com", "t".repeat(200)));
+
+        for (String line : new String(raw, StandardCharsets.US_ASCII).split("\r\n")) {
+            assertTrue(line.length() <= 76, line);
+        }
+    }
+
+    @Test
+    void eachRecipientGetsOwnToken() throws Exception {
+        NewsletterMimeTemplate template = new NewsletterMimeTemplate("<p>a " + TOKEN + " b</p>", "Subject",
+                new InternetAddress("news@newsy.example"));
+
+        String first = body(template.newMessage(session, "one@example.com", "first"));
+        String second = body(template.newMessage(session, "two@example.com", "second"));
+
+        assertEquals("<p>a first b</p>", first);
+        assertEquals("<p>a second b</p>", second);
+        // Saving changes does not re-serialise the pre-encoded message
+        MimeMessage message = template.newMessage(session, "one@example.com", "first");
+        byte[] before = bytes(message);
+        message.saveChanges();
+        assertArrayEquals(before, bytes(message));
+    }
+
+    private MimeMessage roundTrip(MimeMessage message) throws Exception {
+        return new MimeMessage(session, new ByteArrayInputStream(bytes(message)));
+    }
+
+    private String body(MimeMessage message) throws Exception {
+        return (String) ((Multipart) roundTrip(message).getContent()).getBodyPart(0).getContent();
+    }
+
+    private static byte[] bytes(MimeMessage message) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.dto.NewsDTO;
+import com.newsy.newsy.model.News;
+import com.newsy.newsy.repository.NewsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RelatedArticlesIndexTest {
+
+    private RelatedArticlesIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RelatedArticlesIndex(mock(NewsRepository.class));
+        ReflectionTestUtils.setField(index, "k", 2);
+        ReflectionTestUtils.setField(index, "window", Duration.ofDays(2));
+        ReflectionTestUtils.setField(index, "maxArticles", 100);
+        index.add(List.of(
+                news("a", "Technology", "alpha beta gamma delta"),
+                news("b", "Technology", "alpha beta gamma delta"),
+                news("f", "Technology", "alpha beta gamma omega"),
+                news("c", "Science", "alpha zeta theta kappa"),
+                news("d", "Sports", "football match tonight")));
+    }
+
+    @Test
+    void keepsTopKMostSimilarFirst() {
+        index.refresh();
+
+        assertEquals(List.of("b", "f"), ids("a"));
+        // Below the cut for a, but c's own list still finds the shared term
+        assertFalse(index.isSimilar("a", "c", 0));
+        assertTrue(ids("c").contains("a"));
+        assertTrue(index.isSimilar("a", "b", 0.99));
+        // Nothing in common: no neighbours rather than noise
+        assertEquals(List.of(), ids("d"));
+        assertTrue(index.related("unknown").isEmpty());
+    }
+
+    @Test
+    void replacedCategoryIsEvicted() {
+        index.refresh();
+
+        index.retainCategory("technology", List.of("a"));
+        index.refresh();
+
+        assertTrue(index.related("b").isEmpty());
+        assertTrue(index.related("f").isEmpty());
+        assertEquals(List.of("c"), ids("a"));
+    }
+
+    @Test
+    void failedRefreshIsRetried() {
+        ReflectionTestUtils.setField(index, "window", null);
+        assertThrows(NullPointerException.class, index::refresh);
+        assertTrue(index.related("a").isEmpty());
+
+        ReflectionTestUtils.setField(index, "window", Duration.ofDays(2));
+        index.refresh();
+        assertEquals(List.of("b", "f"), ids("a"));
+    }
+
+    private List<String> ids(String id) {
+        return index.related(id).orElseThrow().stream().map(NewsDTO::id).toList();
+    }
+
+    private static News news(String id, String category, String title) {
+        News news = new News(title, null, "source", "https://example.com/" + id, LocalDateTime.now(),
+                category, null, null, null);
+        news.setId(id);
+        return news;
+    }
+}
@@ -0,0 +1,193 @@
+package com.newsy.newsy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.newsy.newsy.dto.SubscriberImportReport;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.embedded.EmbeddedDocumentStore;
+import com.newsy.newsy.repository.embedded.EmbeddedSubscriberRepository;
+import jakarta.validation.Validation;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SubscriberBulkServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private MVStore store;
+    private EmbeddedSubscriberRepository repo;
+    private SubscriberBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        store = MVStore.open(null);
+        repo = repository(store);
+        service = service(repo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void csvHandlesQuotesEmbeddedSeparatorsNewlinesAndBom() throws Exception {
+        String csv = "\uFEFFEmail,categories,timezone,deliveryHour,note\r\n"
+                + "\"a@example.com\",\"technology;sports\",Europe/Berlin,7,\"has, a comma\"\r\n"
+                + "b@example.com,business|education,,,\"spans\ntwo lines and \"\"quotes\"\"\"\n"
+                + "\n"
+                + "c@example.com,technology,,,\n";
+
+        SubscriberImportReport report = importCsv(csv, false);
+
+        assertEquals(3, report.getRows());
+        assertEquals(3, report.getImported());
+        assertEquals(List.of(), report.getErrors());
+        Subscriber a = repo.findByEmail("a@example.com").orElseThrow();
+        assertEquals(List.of("technology", "sports"), a.getCategories());
+        assertEquals("Europe/Berlin", a.getTimezone());
+        assertEquals(7, a.getDeliveryHour());
+        assertEquals(List.of("business", "education"), repo.findByEmail("b@example.com").orElseThrow().getCategories());
+        assertTrue(repo.findByEmail("c@example.com").isPresent(), "row after a multi-line cell is read");
+    }
+
+    @Test
+    void badRowsAreReportedWithTheirLineAndSkipped() throws Exception {
+        String csv = "email,categories,timezone,deliveryHour\n"
+                + "not-an-email,technology,,\n"
+                + "\"d@example.com\",\"multi\nline\",Mars/Olympus,\n"
+                + "e@example.com,technology,,eleven\n"
+                + "f@example.com,,,\n"
+                + "g@example.com,technology,,25\n"
+                + "ok@example.com,technology,,\n";
+
+        SubscriberImportReport report = importCsv(csv, false);
+
+        assertEquals(6, report.getRows());
+        assertEquals(5, report.getInvalid());
+        assertEquals(1, report.getImported());
+        assertTrue(report.getErrors().get(0).startsWith("line 2: email"), report.getErrors().get(0));
+        assertTrue(report.getErrors().get(1).startsWith("line 3: timezone"), report.getErrors().get(1));
+        assertEquals("line 5: deliveryHour is not a number", report.getErrors().get(2));
+        assertTrue(report.getErrors().get(3).startsWith("line 6: categories"), report.getErrors().get(3));
+        assertTrue(report.getErrors().get(4).startsWith("line 7: deliveryHour"), report.getErrors().get(4));
+    }
+
+    @Test
+    void csvWithoutEmailColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("name,categories\nx,technology\n", false));
+    }
+
+    @Test
+    void duplicatesInAChunkKeepTheLastRow() throws Exception {
+        String ndjson = """
+                {"email":"a@example.com","categories":["technology"]}
+                {"email":"a@example.com","categories":["business"]}
+                not json
+                """;
+
+        SubscriberImportReport report = service.importSubscribers(bytes(ndjson), SubscriberBulkService.Format.NDJSON, false);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(1, report.getInvalid());
+        assertTrue(report.getErrors().get(0).startsWith("line 3: "));
+        assertEquals(List.of("business"), repo.findByEmail("a@example.com").orElseThrow().getCategories());
+    }
+
+    @Test
+    void unverifiedRowsAreQueuedNotMailed() throws Exception {
+        SubscriberImportReport report = importCsv("email,categories,unsubscribed\n"
+                + "new@example.com,technology,\n"
+                + "gone@example.com,technology,true\n", false);
+
+        assertEquals(1, report.getVerificationQueued());
+        assertNotNull(repo.findByEmail("new@example.com").orElseThrow().getVerificationQueuedAt());
+        assertNull(repo.findByEmail("gone@example.com").orElseThrow().getVerificationQueuedAt());
+    }
+
+    @Test
+    void exportImportsBackUnchanged() throws Exception {
+        Subscriber verified = subscriber("verified@example.com", true, false);
+        verified.setLastNewsletterDate("2026-10-18");
+        verified.setTimezone("Asia/Tokyo");
+        verified.setDeliveryHour(6);
+        repo.save(verified);
+        repo.save(subscriber("pending@example.com", false, false));
+        repo.save(subscriber("gone@example.com", true, true));
+
+        for (SubscriberBulkService.Format format : SubscriberBulkService.Format.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(3, service.exportSubscribers(out, format));
+
+            try (MVStore target = MVStore.open(null)) {
+                EmbeddedSubscriberRepository copy = repository(target);
+                SubscriberImportReport report = service(copy)
+                        .importSubscribers(new ByteArrayInputStream(out.toByteArray()), format, false);
+                assertEquals(3, report.getImported(), format + " " + report.getErrors());
+                assertEquals(1, report.getVerificationQueued(), format + ": only the unverified subscriber is mailed");
+
+                for (Subscriber original : repo.findAll()) {
+                    Subscriber imported = copy.findByEmail(original.getEmail()).orElseThrow();
+                    assertEquals(original.isVerified(), imported.isVerified(), format + " verified");
+                    assertEquals(original.isUnsubscribed(), imported.isUnsubscribed(), format + " unsubscribed");
+                    assertEquals(original.getVerificationToken(), imported.getVerificationToken(), format + " token");
+                    assertEquals(original.getLastNewsletterDate(), imported.getLastNewsletterDate(), format + " lastNewsletterDate");
+                    assertEquals(original.getCategories(), imported.getCategories(), format + " categories");
+                    assertEquals(original.getTimezone(), imported.getTimezone(), format + " timezone");
+                    assertEquals(original.getDeliveryHour(), imported.getDeliveryHour(), format + " deliveryHour");
+                    assertEquals(original.getCreatedAt(), imported.getCreatedAt(), format + " createdAt");
+                }
+                assertFalse(copy.findByEmail("pending@example.com").orElseThrow().isVerified());
+            }
+        }
+    }
+
+    private SubscriberImportReport importCsv(String csv, boolean verified) throws Exception {
+        return service.importSubscribers(bytes(csv), SubscriberBulkService.Format.CSV, verified);
+    }
+
+    private EmbeddedSubscriberRepository repository(MVStore mvStore) {
+        return new EmbeddedSubscriberRepository(new EmbeddedDocumentStore<>(mvStore, objectMapper, Subscriber.class));
+    }
+
+    private SubscriberBulkService service(EmbeddedSubscriberRepository repository) {
+        SubscriberBulkService bulk = new SubscriberBulkService(repository, mock(SubscriberIndex.class),
+                mock(VerificationMailQueue.class), Validation.buildDefaultValidatorFactory().getValidator(), objectMapper);
+        ReflectionTestUtils.setField(bulk, "chunkSize", 1000);
+        return bulk;
+    }
+
+    private static Subscriber subscriber(String email, boolean verified, boolean unsubscribed) {
+        Subscriber s = new Subscriber();
+        s.setEmail(email);
+        s.setCategories(List.of("technology", "business"));
+        s.setVerified(verified);
+        s.setUnsubscribed(unsubscribed);
+        s.setVerificationToken("token-" + email);
+        s.setCreatedAt(Instant.parse("2026-01-02T03:04:05.678Z"));
+        return s;
+    }
+
+    private static ByteArrayInputStream bytes(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,134 @@
+package com.newsy.newsy.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.embedded.EmbeddedDocumentStore;
+import com.newsy.newsy.repository.embedded.EmbeddedSubscriberRepository;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SubscriberIndexTest {
+
+    private MVStore store;
+    private EmbeddedSubscriberRepository repo;
+    private SubscriberIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        store = MVStore.open(null);
+        repo = new EmbeddedSubscriberRepository(new EmbeddedDocumentStore<>(store,
+                JsonMapper.builder().findAndAddModules().build(), Subscriber.class));
+        index = new SubscriberIndex(repo, mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(index, "pollInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(index, "fullReloadInterval", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void audiencesGroupSubscribersByCategorySet() {
+        save("a@example.com", true, "Technology", "sports");
+        save("b@example.com", true, "sports", "technology ");
+        save("c@example.com", true, "business");
+        save("d@example.com", false, "business");
+        save("e@example.com", true);
+        assertTrue(index.audiences().isEmpty(), "not loaded yet");
+
+        index.refresh();
+
+        Map<List<String>, List<String>> audiences = emailsByCategories(index.audiences().orElseThrow());
+        assertEquals(Map.of(
+                List.of("sports", "technology"), List.of("a@example.com", "b@example.com"),
+                List.of("business"), List.of("c@example.com")), audiences);
+        assertEquals(Map.of("business", 1, "sports", 2, "technology", 2), index.countsByCategory().orElseThrow());
+        // The store fallback groups the same way
+        assertEquals(audiences, emailsByCategories(SubscriberIndex.audiencesOf(
+                repo.findAll().stream().filter(Subscriber::isVerified).toList())));
+    }
+
+    @Test
+    void newsletterDateIsMirroredWithoutTouchingOtherMembers() {
+        Subscriber a = save("a@example.com", true, "sports");
+        save("b@example.com", true, "sports");
+        index.refresh();
+
+        index.markNewsletterSent(List.of(a.getId()), "2026-03-10");
+
+        Map<String, String> dates = index.audiences().orElseThrow().get(0).members().stream()
+                .collect(Collectors.toMap(SubscriberIndex.Member::email, m -> String.valueOf(m.lastNewsletterDate())));
+        assertEquals(Map.of("a@example.com", "2026-03-10", "b@example.com", "null"), dates);
+    }
+
+    @Test
+    void pollAppliesOnlyChangedSubscribers() {
+        Subscriber a = save("a@example.com", true, "sports");
+        index.refresh();
+        Instant polled = (Instant) ReflectionTestUtils.getField(index, "polledUpTo");
+
+        // Changed by another instance after the last poll
+        Subscriber b = save("b@example.com", true, "business");
+        a.setUnsubscribed(true);
+        a.setUpdatedAt(Instant.now());
+        repo.save(a);
+        index.tryPoll();
+
+        assertEquals(Map.of(List.of("business"), List.of("b@example.com")),
+                emailsByCategories(index.audiences().orElseThrow()));
+        assertEquals(polled, ReflectionTestUtils.getField(index, "reloadedAt"), "no full reload");
+        assertEquals(List.of(b.getId(), a.getId()), repo.findByUpdatedAtGreaterThanEqual(polled).stream()
+                .map(Subscriber::getId).toList());
+        assertTrue(repo.findByUpdatedAtGreaterThanEqual(Instant.now().plusSeconds(1)).isEmpty());
+    }
+
+    @Test
+    void fullReloadPicksUpChangesWithoutUpdatedAt() {
+        save("a@example.com", true, "sports");
+        index.refresh();
+
+        Subscriber legacy = new Subscriber();
+        legacy.setEmail("legacy@example.com");
+        legacy.setVerified(true);
+        legacy.setCategories(List.of("sports"));
+        repo.save(legacy);
+        index.tryPoll();
+        assertEquals(1, index.countsByCategory().orElseThrow().get("sports"));
+
+        ReflectionTestUtils.setField(index, "reloadedAt", Instant.now().minus(Duration.ofHours(2)));
+        index.tryPoll();
+        assertEquals(2, index.countsByCategory().orElseThrow().get("sports"));
+        assertNull(legacy.getUpdatedAt());
+    }
+
+    private Subscriber save(String email, boolean verified, String... categories) {
+        Subscriber s = new Subscriber();
+        s.setEmail(email);
+        s.setVerified(verified);
+        s.setCategories(List.of(categories));
+        s.setUpdatedAt(Instant.now());
+        return repo.save(s);
+    }
+
+    private static Map<List<String>, List<String>> emailsByCategories(List<SubscriberIndex.Audience> audiences) {
+        return audiences.stream().collect(Collectors.toMap(SubscriberIndex.Audience::categories,
+                a -> a.members().stream().map(SubscriberIndex.Member::email).sorted().toList()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.newsy.newsy.service;
+
+import com.newsy.newsy.repository.TrackingCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TrackingServiceTest {
+
+    private TrackingService tracking;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) {
+        tracking = new TrackingService(mock(TrackingCounterRepository.class));
+        ReflectionTestUtils.setField(tracking, "appBaseUrl", "https://newsy.example");
+        ReflectionTestUtils.setField(tracking, "secret", "test-secret");
+        ReflectionTestUtils.setField(tracking, "walPath", dir.resolve("tracking.wal"));
+        ReflectionTestUtils.setField(tracking, "walInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(tracking, "flushInterval", Duration.ofHours(1));
+        tracking.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracking.stop();
+    }
+
+    @Test
+    void clickUrlSurvivesServletDecoding() {
+        String article = "https://news.example/a+b?q=c%20d&x=1+2#top";
+        Map<String, String> params = queryParams(tracking.clickUrl("2026-03-10", article));
+
+        assertEquals(article, params.get("u"));
+        assertTrue(tracking.recordClick(params.get("i"), params.get("u"), params.get("s")));
+    }
+
+    @Test
+    void tamperedTargetIsRejected() {
+        Map<String, String> params = queryParams(tracking.clickUrl("2026-03-10", "https://news.example/a"));
+
+        assertFalse(tracking.recordClick(params.get("i"), "https://evil.example/", params.get("s")));
+    }
+
+    @Test
+    void openPixelUrlIsSigned() {
+        Map<String, String> params = queryParams(tracking.openPixelUrl("2026-03-10"));
+
+        assertTrue(tracking.recordOpen(params.get("i"), params.get("s")));
+        assertFalse(tracking.recordOpen("2026-03-11", params.get("s")));
+    }
+
+    @Test
+    void withoutSecretLinksGoStraightToArticles(@TempDir Path dir) {
+        TrackingService untracked = new TrackingService(mock(TrackingCounterRepository.class));
+        ReflectionTestUtils.setField(untracked, "appBaseUrl", "https://newsy.example");
+        ReflectionTestUtils.setField(untracked, "secret", "");
+        ReflectionTestUtils.setField(untracked, "walPath", dir.resolve("tracking.wal"));
+        ReflectionTestUtils.setField(untracked, "walInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(untracked, "flushInterval", Duration.ofHours(1));
+        untracked.start();
+        try {
+            assertEquals("https://news.example/a", untracked.clickUrl("2026-03-10", "https://news.example/a"));
+            assertNull(untracked.openPixelUrl("2026-03-10"));
+            assertFalse(untracked.recordClick("2026-03-10", "https://news.example/a", "anything"));
+        } finally {
+            untracked.stop();
+        }
+    }
+
+    /**
+     * Decode the query the way the servlet container does for @RequestParam ('+' is a space)
+     */
+    private static Map<String, String> queryParams(String url) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : URI.create(url).getRawQuery().split("&")) {
+            int eq = pair.indexOf('=');
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,110 @@
+package com.newsy.newsy.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.newsy.newsy.model.Subscriber;
+import com.newsy.newsy.repository.embedded.EmbeddedDocumentStore;
+import com.newsy.newsy.repository.embedded.EmbeddedSubscriberRepository;
+import jakarta.mail.MessagingException;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class VerificationMailQueueTest {
+
+    private MVStore store;
+    private EmbeddedSubscriberRepository repo;
+    private EmailService emailService;
+    private DomainSendScheduler sendScheduler;
+    private VerificationMailQueue queue;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = MVStore.open(null);
+        repo = new EmbeddedSubscriberRepository(new EmbeddedDocumentStore<>(store,
+                JsonMapper.builder().findAndAddModules().build(), Subscriber.class));
+        emailService = mock(EmailService.class);
+        doThrow(new MessagingException("mailbox unavailable"))
+                .when(emailService).sendVerificationEmail(eq("bad@example.com"), anyString(), any());
+        sendScheduler = new DomainSendScheduler(2, 2, 1_000_000);
+        queue = new VerificationMailQueue(repo, emailService, sendScheduler);
+        ReflectionTestUtils.setField(queue, "batchSize", 100);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(queue, "retryBackoff", Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendScheduler.shutdown();
+        store.close();
+    }
+
+    @Test
+    void sentAndNoLongerPendingSubscribersLeaveTheQueue() throws Exception {
+        queued("good@example.com", false);
+        queued("already@example.com", true);
+
+        assertEquals(2, queue.sendBatch());
+
+        verify(emailService).sendVerificationEmail("good@example.com", "token-good@example.com", MailDispatcher.Lane.BULK);
+        verify(emailService, never()).sendVerificationEmail(eq("already@example.com"), anyString(), any());
+        assertTrue(repo.findQueuedForVerification(Instant.MAX, 10).isEmpty());
+    }
+
+    @Test
+    void failedSendsBackOffAndAreDroppedAfterMaxAttempts() throws Exception {
+        queued("bad@example.com", false);
+
+        Instant before = Instant.now();
+        assertEquals(0, queue.sendBatch());
+        Subscriber afterFirst = repo.findByEmail("bad@example.com").orElseThrow();
+        assertEquals(1, afterFirst.getVerificationAttempts());
+        assertTrue(!afterFirst.getVerificationQueuedAt().isBefore(before.plus(Duration.ofMinutes(5))), "retried after the backoff");
+        assertEquals(0, queue.sendBatch(), "not due yet, so not attempted again");
+
+        // Make it due again twice; the backoff doubles, then the third failure gives up
+        makeDue("bad@example.com");
+        queue.sendBatch();
+        Subscriber afterSecond = repo.findByEmail("bad@example.com").orElseThrow();
+        assertEquals(2, afterSecond.getVerificationAttempts());
+        assertTrue(!afterSecond.getVerificationQueuedAt().isBefore(before.plus(Duration.ofMinutes(10))));
+
+        makeDue("bad@example.com");
+        assertEquals(1, queue.sendBatch());
+        Subscriber dropped = repo.findByEmail("bad@example.com").orElseThrow();
+        assertNull(dropped.getVerificationQueuedAt());
+        assertTrue(repo.findQueuedForVerification(Instant.MAX, 10).isEmpty());
+    }
+
+    private void queued(String email, boolean verified) {
+        Subscriber s = new Subscriber();
+        s.setEmail(email);
+        s.setCategories(List.of("technology"));
+        s.setVerified(verified);
+        s.setVerificationToken("token-" + email);
+        s.setVerificationQueuedAt(Instant.now().minusSeconds(1));
+        repo.save(s);
+    }
+
+    private void makeDue(String email) {
+        Subscriber s = repo.findByEmail(email).orElseThrow();
+        s.setVerificationQueuedAt(Instant.now().minusSeconds(1));
+        repo.save(s);
+    }
+}